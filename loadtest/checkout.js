@@ -0,0 +1,69 @@
+// 🔥 Prueba de carga (k6) - ráfagas de checkout contra la API de pedidos
+// Uso: k6 run -e BASE_URL=http://localhost:8080 loadtest/checkout.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+  scenarios: {
+    rafaga_checkout: {
+      executor: 'ramping-arrival-rate',
+      startRate: 50,
+      timeUnit: '1s',
+      preAllocatedVUs: 200,
+      maxVUs: 2000,
+      stages: [
+        { target: 50, duration: '30s' },
+        { target: 800, duration: '10s' }, // ráfaga
+        { target: 800, duration: '1m' },
+        { target: 50, duration: '30s' },
+      ],
+    },
+  },
+  // p(99) no sale en el resumen por defecto de k6: se pide para comparar los dos modos
+  summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    http_req_duration: ['p(95)<500', 'p(99)<1500'],
+  },
+};
+
+const PRODUCTOS = 500;
+
+// 0. Dar de alta el catálogo una vez, antes de la carga: el precio lo pone el servidor
+export function setup() {
+  for (let i = 0; i < PRODUCTOS; i++) {
+    const res = http.put(
+      `${BASE_URL}/api/productos/SKU-${i}`,
+      JSON.stringify({ nombre: `Producto de carga ${i}`, precio: 19.99 }),
+      JSON_HEADERS
+    );
+    check(res, { 'producto registrado': (r) => r.status === 200 });
+  }
+}
+
+export default function () {
+  // 1. Crear pedido
+  const creado = http.post(`${BASE_URL}/api/pedidos`);
+  check(creado, { 'pedido creado': (r) => r.status === 200 });
+  const pedidoId = creado.json('pedidoId');
+
+  // 2. Agregar tres productos
+  for (let i = 0; i < 3; i++) {
+    const res = http.post(
+      `${BASE_URL}/api/pedidos/${pedidoId}/productos`,
+      JSON.stringify({
+        productoId: `SKU-${Math.floor(Math.random() * PRODUCTOS)}`,
+        cantidad: 1,
+      }),
+      JSON_HEADERS
+    );
+    check(res, { 'producto agregado': (r) => r.status === 200 });
+  }
+
+  // 3. Consultar
+  const consulta = http.get(`${BASE_URL}/api/pedidos/${pedidoId}`);
+  check(consulta, { 'pedido consultado': (r) => r.status === 200 });
+}
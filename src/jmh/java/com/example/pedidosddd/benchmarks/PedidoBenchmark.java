@@ -0,0 +1,88 @@
+package com.example.pedidosddd.benchmarks;
+
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoFactory;
+import com.example.pedidosddd.domain.model.Producto;
+import com.example.pedidosddd.domain.model.ProductoId;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * BENCHMARK - Aggregate Root Pedido
+ *
+ * <p>Mide las operaciones de dominio puras (sin Spring ni base de datos): construir un pedido con N
+ * productos distintos, sumar cantidad a un producto existente y calcular el total.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PedidoBenchmark {
+
+  @Param({"1", "10", "100", "1000", "10000"})
+  int cantidadItems;
+
+  Producto[] productos;
+  Pedido pedidoLleno;
+  Producto productoExistente;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    productos = CatalogoBenchmark.productos(cantidadItems);
+    productoExistente = productos[productos.length / 2];
+  }
+
+  // Se recrea en cada iteración para que la cantidad acumulada no crezca sin límite
+  @Setup(Level.Iteration)
+  public void prepararPedido() {
+    pedidoLleno = CatalogoBenchmark.pedidoCon(productos);
+  }
+
+  /** Agregar N productos distintos a un pedido vacío (el coste crece con el tamaño del carrito) */
+  @Benchmark
+  public Pedido agregarProductosDistintos() {
+    Pedido pedido = PedidoFactory.crearNuevoPedido();
+    for (Producto producto : productos) {
+      pedido.agregarProducto(producto, 1);
+    }
+    return pedido;
+  }
+
+  /** Sumar cantidad a un producto que ya está en un pedido de N items */
+  @Benchmark
+  public void agregarProductoExistente(Blackhole bh) {
+    pedidoLleno.agregarProducto(productoExistente, 1);
+    bh.consume(pedidoLleno);
+  }
+
+  @Benchmark
+  public BigDecimal calcularTotal() {
+    return pedidoLleno.calcularTotal();
+  }
+
+  /** Datos compartidos por los benchmarks */
+  static final class CatalogoBenchmark {
+    private CatalogoBenchmark() {}
+
+    static Producto[] productos(int cantidad) {
+      Producto[] productos = new Producto[cantidad];
+      for (int i = 0; i < cantidad; i++) {
+        productos[i] =
+            new Producto(
+                new ProductoId("SKU-" + i),
+                "Producto " + i,
+                BigDecimal.valueOf(1000 + i, 2)); // 10.00, 10.01, ...
+      }
+      return productos;
+    }
+
+    static Pedido pedidoCon(Producto[] productos) {
+      Pedido pedido = PedidoFactory.crearNuevoPedido();
+      for (Producto producto : productos) {
+        pedido.agregarProducto(producto, 1);
+      }
+      return pedido;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.pedidosddd.benchmarks;
+
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.DiccionarioNombres;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.PedidoBinarioCodec;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * BENCHMARK - PedidoBinarioCodec
+ *
+ * <p>Codificar y decodificar pedidos de N items, autocontenido (fichero, réplicas) y con
+ * diccionario compartido (caché). Con -prof gc se ve también la memoria asignada por operación.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PedidoCodecBenchmark {
+
+  @Param({"1", "10", "100", "1000"})
+  int cantidadItems;
+
+  @Param({"false", "true"})
+  boolean conDiccionario;
+
+  PedidoBinarioCodec codec;
+  Pedido pedido;
+  ByteBuffer codificado;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    codec =
+        conDiccionario
+            ? new PedidoBinarioCodec(new DiccionarioNombres(65536))
+            : new PedidoBinarioCodec();
+    pedido =
+        PedidoBenchmark.CatalogoBenchmark.pedidoCon(
+            PedidoBenchmark.CatalogoBenchmark.productos(cantidadItems));
+    codificado = ByteBuffer.wrap(codec.codificar(pedido));
+  }
+
+  @Benchmark
+  public byte[] codificar() {
+    return codec.codificar(pedido);
+  }
+
+  @Benchmark
+  public Pedido decodificar() {
+    return codec.decodificar(codificado);
+  }
+}
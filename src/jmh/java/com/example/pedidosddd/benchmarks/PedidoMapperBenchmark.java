@@ -0,0 +1,51 @@
+package com.example.pedidosddd.benchmarks;
+
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.InternadoProductos;
+import com.example.pedidosddd.infrastructure.adapters.out.persistence.PedidoEntity;
+import com.example.pedidosddd.infrastructure.adapters.out.persistence.PedidoMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * BENCHMARK - PedidoMapper
+ *
+ * <p>Coste de traducir Dominio ↔ Entidad JPA para pedidos de N items (sin base de datos). Es el
+ * trabajo que hace el adaptador de persistencia en cada findById/save.
+ *
+ * <p>Con -prof gc se ve la asignación por operación de toDomain: tras la primera carga los
+ * productos salen de InternadoProductos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PedidoMapperBenchmark {
+
+  @Param({"1", "10", "100", "1000", "10000"})
+  int cantidadItems;
+
+  PedidoMapper mapper;
+  Pedido pedido;
+  PedidoEntity entity;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    mapper = new PedidoMapper(registry, new InternadoProductos(20_000, registry));
+    pedido =
+        PedidoBenchmark.CatalogoBenchmark.pedidoCon(
+            PedidoBenchmark.CatalogoBenchmark.productos(cantidadItems));
+    entity = mapper.toEntity(pedido);
+  }
+
+  @Benchmark
+  public PedidoEntity toEntity() {
+    return mapper.toEntity(pedido);
+  }
+
+  @Benchmark
+  public Pedido toDomain() {
+    return mapper.toDomain(entity);
+  }
+}
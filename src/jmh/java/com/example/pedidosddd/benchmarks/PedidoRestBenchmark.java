@@ -0,0 +1,97 @@
+package com.example.pedidosddd.benchmarks;
+
+import com.example.pedidosddd.PedidosDddApplication;
+import com.example.pedidosddd.application.ports.in.AgregarProductoUseCase;
+import com.example.pedidosddd.application.ports.in.CrearPedidoUseCase;
+import com.example.pedidosddd.application.ports.in.RegistrarProductoUseCase;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.domain.model.Producto;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * BENCHMARK - Flujo REST completo
+ *
+ * <p>POST /api/pedidos/{id}/productos contra la aplicación real (Tomcat + JPA + H2) sobre un pedido
+ * que ya tiene N items. Mide todo el camino: HTTP → controller → use case → findById → dominio →
+ * save.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PedidoRestBenchmark {
+
+  @Param({"1", "10", "100", "1000", "10000"})
+  int cantidadItems;
+
+  ConfigurableApplicationContext context;
+  HttpClient httpClient;
+  HttpRequest agregarProducto;
+
+  @Setup(Level.Trial)
+  public void arrancar() {
+    context =
+        new SpringApplicationBuilder(PedidosDddApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.jpa.show-sql=false",
+                "spring.h2.console.enabled=false",
+                "logging.level.root=WARN")
+            .run();
+
+    // Pedido precargado con N items usando los mismos puertos de entrada que la web
+    CrearPedidoUseCase crearPedido = context.getBean(CrearPedidoUseCase.class);
+    AgregarProductoUseCase agregarProductoUseCase = context.getBean(AgregarProductoUseCase.class);
+    RegistrarProductoUseCase registrarProducto = context.getBean(RegistrarProductoUseCase.class);
+    PedidoId pedidoId = crearPedido.crearNuevoPedido();
+    Producto[] productos = PedidoBenchmark.CatalogoBenchmark.productos(cantidadItems);
+    for (Producto producto : productos) {
+      registrarProducto.registrarProducto(
+          new RegistrarProductoUseCase.RegistrarProductoCommand(
+              producto.getId(), producto.getNombre(), producto.getPrecio()));
+      agregarProductoUseCase.agregarProducto(
+          new AgregarProductoUseCase.AgregarProductoCommand(pedidoId, producto.getId(), 1));
+    }
+
+    // Siempre el mismo producto: el pedido mantiene N items y solo crece la cantidad
+    Producto producto = productos[0];
+    int puerto = ((WebServerApplicationContext) context).getWebServer().getPort();
+    httpClient = HttpClient.newHttpClient();
+    agregarProducto =
+        HttpRequest.newBuilder(
+                URI.create(
+                    "http://localhost:"
+                        + puerto
+                        + "/api/pedidos/"
+                        + pedidoId.getValue()
+                        + "/productos"))
+            .header("Content-Type", "application/json")
+            .POST(
+                HttpRequest.BodyPublishers.ofString(
+                    "{\"productoId\":\"" + producto.getId().getValue() + "\",\"cantidad\":1}"))
+            .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void detener() {
+    context.close();
+  }
+
+  @Benchmark
+  public int agregarProductoHttp() throws IOException, InterruptedException {
+    HttpResponse<String> respuesta =
+        httpClient.send(agregarProducto, HttpResponse.BodyHandlers.ofString());
+    if (respuesta.statusCode() != 200) {
+      throw new IllegalStateException("Respuesta inesperada: " + respuesta.statusCode());
+    }
+    return respuesta.statusCode();
+  }
+}
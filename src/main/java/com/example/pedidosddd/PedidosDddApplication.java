@@ -6,7 +6,13 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
 @EnableJpaRepositories(
-    basePackages = "com.example.pedidosddd.infrastructure.adapters.out.persistence")
+    basePackages = {
+      "com.example.pedidosddd.infrastructure.adapters.out.persistence",
+      "com.example.pedidosddd.infrastructure.adapters.out.eventstore",
+      "com.example.pedidosddd.infrastructure.adapters.out.resumen",
+      "com.example.pedidosddd.infrastructure.adapters.out.catalogo",
+      "com.example.pedidosddd.infrastructure.adapters.out.archivo"
+    })
 public class PedidosDddApplication {
 
   public static void main(String[] args) {
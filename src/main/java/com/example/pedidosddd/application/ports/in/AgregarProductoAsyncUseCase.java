@@ -0,0 +1,14 @@
+package com.example.pedidosddd.application.ports.in;
+
+import com.example.pedidosddd.application.ports.in.AgregarProductoUseCase.AgregarProductoCommand;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * PUERTO DE ENTRADA - Variante asíncrona de AgregarProductoUseCase
+ *
+ * <p>Mismo Command y mismos errores que la versión síncrona, entregados a través del futuro. Con el
+ * ejecutor saturado el futuro falla con RejectedExecutionException.
+ */
+public interface AgregarProductoAsyncUseCase {
+  CompletableFuture<Void> agregarProductoAsync(AgregarProductoCommand command);
+}
@@ -2,14 +2,20 @@ package com.example.pedidosddd.application.ports.in;
 
 import com.example.pedidosddd.domain.model.PedidoId;
 import com.example.pedidosddd.domain.model.ProductoId;
-import java.math.BigDecimal;
 
 /**
  * PUERTO DE ENTRADA - Agregar productos a pedidos 
  * 🎯 DDD: Usa Value Objects del dominio, NO primitivos
+ *
+ * <p>El producto se identifica solo por su ProductoId: nombre y precio salen del catálogo
+ * (ProductoCatalogPort), nunca del cliente.
  */
 public interface AgregarProductoUseCase {
-  /** Agrega un producto a un pedido existente */
+  /**
+   * Agrega un producto a un pedido existente
+   *
+   * @throws IllegalArgumentException si el pedido o el producto no existen
+   */
   void agregarProducto(AgregarProductoCommand command);
 
   /**
@@ -19,8 +25,6 @@ public interface AgregarProductoUseCase {
   record AgregarProductoCommand(
       PedidoId pedidoId,
       ProductoId productoId,
-      String nombreProducto,
-      BigDecimal precioProducto,
       int cantidad) {
     public AgregarProductoCommand {
       if (pedidoId == null) {
@@ -29,12 +33,6 @@ public interface AgregarProductoUseCase {
       if (productoId == null) {
         throw new IllegalArgumentException("ProductoId es requerido");
       }
-      if (nombreProducto == null || nombreProducto.isBlank()) {
-        throw new IllegalArgumentException("Nombre del producto es requerido");
-      }
-      if (precioProducto == null || precioProducto.compareTo(BigDecimal.ZERO) <= 0) {
-        throw new IllegalArgumentException("Precio debe ser positivo");
-      }
       if (cantidad <= 0) {
         throw new IllegalArgumentException("Cantidad debe ser positiva");
       }
@@ -0,0 +1,44 @@
+package com.example.pedidosddd.application.ports.in;
+
+import com.example.pedidosddd.application.ports.in.AgregarProductoUseCase.AgregarProductoCommand;
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.util.List;
+
+/**
+ * PUERTO DE ENTRADA - Agregar varias líneas a un pedido de una sola vez
+ *
+ * <p>Todas las líneas se aplican sobre una única carga del agregado y se persisten con un solo
+ * save. Las líneas que el dominio rechaza no abortan el lote: se devuelven como errores por línea.
+ */
+public interface AgregarProductosEnLoteUseCase {
+  /** Aplica las líneas válidas y reporta las rechazadas */
+  ResultadoLote agregarProductos(AgregarProductosEnLoteCommand command);
+
+  /** COMMAND OBJECT - Un pedido y sus líneas, reutilizando AgregarProductoCommand */
+  record AgregarProductosEnLoteCommand(PedidoId pedidoId, List<AgregarProductoCommand> lineas) {
+    public AgregarProductosEnLoteCommand {
+      if (pedidoId == null) {
+        throw new IllegalArgumentException("PedidoId es requerido");
+      }
+      if (lineas == null || lineas.isEmpty()) {
+        throw new IllegalArgumentException("El lote debe tener al menos una línea");
+      }
+      for (AgregarProductoCommand linea : lineas) {
+        if (!pedidoId.equals(linea.pedidoId())) {
+          throw new IllegalArgumentException("Todas las líneas deben ser del mismo pedido");
+        }
+      }
+      lineas = List.copyOf(lineas);
+    }
+  }
+
+  /** Error de una línea concreta (índice dentro de lineas) */
+  record ErrorLinea(int linea, String mensaje) {}
+
+  /** Resultado del lote: cuántas líneas se aplicaron y cuáles fallaron */
+  record ResultadoLote(int lineasAgregadas, List<ErrorLinea> errores) {
+    public ResultadoLote {
+      errores = List.copyOf(errores);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.pedidosddd.application.ports.in;
+
+import com.example.pedidosddd.domain.model.PedidoId;
+
+/**
+ * PUERTO DE ENTRADA - Completar un pedido (checkout)
+ *
+ * <p>Con la escritura diferida activa, completar guarda en el momento todo lo acumulado del pedido:
+ * al volver, el pedido completado ya está en el almacén.
+ */
+public interface CompletarPedidoUseCase {
+  /**
+   * @throws IllegalArgumentException si el pedido no existe
+   * @throws IllegalStateException si el pedido no está PENDIENTE o está vacío
+   */
+  void completarPedido(PedidoId pedidoId);
+}
@@ -0,0 +1,20 @@
+package com.example.pedidosddd.application.ports.in;
+
+import com.example.pedidosddd.application.ports.in.ConsultarResumenPedidoUseCase.ResumenPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * PUERTO DE ENTRADA - Variante asíncrona de ConsultarPedidoUseCase y ConsultarResumenPedidoUseCase
+ *
+ * <p>Con el ejecutor saturado el futuro falla con RejectedExecutionException.
+ */
+public interface ConsultarPedidoAsyncUseCase {
+
+  /** Futuro fallido con IllegalArgumentException si el pedido no existe */
+  CompletableFuture<Pedido> consultarPedidoPorIdAsync(PedidoId pedidoId);
+
+  CompletableFuture<Optional<ResumenPedido>> consultarResumenAsync(PedidoId pedidoId);
+}
@@ -1,5 +1,6 @@
 package com.example.pedidosddd.application.ports.in;
 
+import com.example.pedidosddd.domain.model.EstadoPedido;
 import com.example.pedidosddd.domain.model.Pedido;
 import com.example.pedidosddd.domain.model.PedidoId;
 
@@ -23,4 +24,14 @@ public interface ConsultarPedidoUseCase {
    * @throws RuntimeException si el pedido no existe
    */
   Pedido consultarPedidoPorId(PedidoId pedidoId);
+
+  /**
+   * Consulta solo el estado del pedido, sin cargar sus items
+   *
+   * @throws IllegalArgumentException si el pedido no existe
+   */
+  EstadoPedido consultarEstado(PedidoId pedidoId);
+
+  /** ¿Existe el pedido? Sin cargar sus items */
+  boolean existePedido(PedidoId pedidoId);
 }
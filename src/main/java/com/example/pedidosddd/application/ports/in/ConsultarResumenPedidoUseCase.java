@@ -0,0 +1,32 @@
+package com.example.pedidosddd.application.ports.in;
+
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * PUERTO DE ENTRADA - Consultar el resumen de un pedido (lado de lectura, CQRS)
+ *
+ * <p>Lee la proyección pedido_resumen, mantenida en cada save: no rehidrata el agregado ni
+ * recalcula el total. Optional vacío si el pedido no tiene proyección (no existe, o su almacén no
+ * la mantiene) o si tiene cambios aún sin guardar que la proyección no refleja; en ese caso el
+ * adaptador puede recurrir a ConsultarPedidoUseCase.
+ */
+public interface ConsultarResumenPedidoUseCase {
+
+  Optional<ResumenPedido> consultarResumen(PedidoId pedidoId);
+
+  /**
+   * READ MODEL - Lo que se muestra de un pedido, ya calculado
+   *
+   * <p>productosJson es la lista de productos renderizada como array JSON de objetos {productoId,
+   * nombre, precio, cantidad}; se sirve tal cual, sin parsear.
+   */
+  record ResumenPedido(
+      PedidoId pedidoId,
+      EstadoPedido estado,
+      BigDecimal total,
+      int cantidadItems,
+      String productosJson) {}
+}
@@ -0,0 +1,14 @@
+package com.example.pedidosddd.application.ports.in;
+
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * PUERTO DE ENTRADA - Variante asíncrona de CrearPedidoUseCase
+ *
+ * <p>El trabajo se ejecuta en un ejecutor acotado; si está saturado el futuro falla con
+ * RejectedExecutionException en lugar de encolar sin límite.
+ */
+public interface CrearPedidoAsyncUseCase {
+  CompletableFuture<PedidoId> crearNuevoPedidoAsync();
+}
@@ -0,0 +1,20 @@
+package com.example.pedidosddd.application.ports.in;
+
+import com.example.pedidosddd.domain.model.Pedido;
+import java.util.function.Consumer;
+
+/**
+ * PUERTO DE ENTRADA - Exportar todos los pedidos (volcado nocturno al data warehouse)
+ *
+ * <p>Los pedidos se entregan uno a uno al destino a medida que se leen: quien exporta nunca tiene
+ * más de un pedido en memoria, sean 10 mil o 50 millones.
+ */
+public interface ExportarPedidosUseCase {
+  /**
+   * Recorre todos los pedidos y los entrega al destino
+   *
+   * @param destino recibe cada Pedido completo (con sus items), en orden de ID
+   * @return cantidad de pedidos exportados
+   */
+  long exportarPedidos(Consumer<Pedido> destino);
+}
@@ -0,0 +1,51 @@
+package com.example.pedidosddd.application.ports.in;
+
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * PUERTO DE ENTRADA - Listar pedidos (back-office)
+ *
+ * <p>Paginación por keyset (seek) sobre (fechaActualizacion, id), del más reciente al más antiguo:
+ * cada página continúa "después" del último pedido de la anterior, así el coste no crece con el
+ * número de página como con OFFSET.
+ */
+public interface ListarPedidosUseCase {
+
+  PaginaPedidos listarPedidos(ListarPedidosQuery query);
+
+  /** Posición de la última fila entregada; la siguiente página empieza justo después */
+  record Cursor(LocalDateTime fechaActualizacion, PedidoId pedidoId) {
+    public Cursor {
+      if (fechaActualizacion == null || pedidoId == null) {
+        throw new IllegalArgumentException("Cursor inválido");
+      }
+    }
+  }
+
+  /**
+   * QUERY OBJECT - estado y despuesDe son opcionales (null = sin filtro / primera página)
+   *
+   * <p>🎯 DDD: Filtra por EstadoPedido del dominio, no por String
+   */
+  record ListarPedidosQuery(EstadoPedido estado, Cursor despuesDe, int tamano) {
+    public static final int TAMANO_MAXIMO = 500;
+
+    public ListarPedidosQuery {
+      if (tamano <= 0 || tamano > TAMANO_MAXIMO) {
+        throw new IllegalArgumentException(
+            "El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO);
+      }
+    }
+  }
+
+  /** Una página de pedidos; siguiente es null cuando no hay más */
+  record PaginaPedidos(List<Pedido> pedidos, Cursor siguiente) {
+    public PaginaPedidos {
+      pedidos = List.copyOf(pedidos);
+    }
+  }
+}
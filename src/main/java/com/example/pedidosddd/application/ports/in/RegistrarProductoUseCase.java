@@ -0,0 +1,36 @@
+package com.example.pedidosddd.application.ports.in;
+
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
+import com.example.pedidosddd.domain.model.ProductoId;
+import java.math.BigDecimal;
+
+/**
+ * PUERTO DE ENTRADA - Alta o actualización de un producto del catálogo
+ *
+ * <p>Los pedidos toman nombre y precio del catálogo; un cambio de precio afecta a las líneas que se
+ * agreguen después, no a las que ya están en un pedido.
+ */
+public interface RegistrarProductoUseCase {
+
+  /**
+   * @return versión del producto tras el cambio
+   * @throws ConflictoDeConcurrenciaException si otras operaciones siguen cambiando el producto tras
+   *     reintentar
+   */
+  long registrarProducto(RegistrarProductoCommand command);
+
+  /** COMMAND OBJECT - 🎯 DDD: ProductoId es Value Object del dominio */
+  record RegistrarProductoCommand(ProductoId productoId, String nombre, BigDecimal precio) {
+    public RegistrarProductoCommand {
+      if (productoId == null) {
+        throw new IllegalArgumentException("ProductoId es requerido");
+      }
+      if (nombre == null || nombre.isBlank()) {
+        throw new IllegalArgumentException("Nombre del producto es requerido");
+      }
+      if (precio == null || precio.compareTo(BigDecimal.ZERO) <= 0) {
+        throw new IllegalArgumentException("Precio debe ser positivo");
+      }
+    }
+  }
+}
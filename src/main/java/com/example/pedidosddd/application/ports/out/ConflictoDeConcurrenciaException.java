@@ -0,0 +1,19 @@
+package com.example.pedidosddd.application.ports.out;
+
+/**
+ * EXCEPCIÓN DEL PUERTO DE SALIDA - Otro proceso modificó el pedido desde que se leyó
+ *
+ * <p>La lanzan los adaptadores de persistencia cuando la versión del Pedido que se intenta guardar
+ * ya no coincide con la almacenada (control de concurrencia optimista). Los use cases la usan para
+ * reintentar con el agregado recargado.
+ */
+public class ConflictoDeConcurrenciaException extends RuntimeException {
+
+  public ConflictoDeConcurrenciaException(String message) {
+    super(message);
+  }
+
+  public ConflictoDeConcurrenciaException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
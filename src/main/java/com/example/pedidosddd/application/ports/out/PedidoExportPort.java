@@ -0,0 +1,18 @@
+package com.example.pedidosddd.application.ports.out;
+
+import com.example.pedidosddd.domain.model.Pedido;
+import java.util.function.Consumer;
+
+/**
+ * PUERTO DE SALIDA - Lectura secuencial de todos los pedidos
+ *
+ * <p>El adaptador debe recorrer el almacén con memoria constante (cursor), sin cargar la colección
+ * completa.
+ */
+public interface PedidoExportPort {
+  /**
+   * Entrega cada pedido al consumidor en orden de ID (con el almacén particionado, dentro de cada
+   * partición); devuelve cuántos recorrió
+   */
+  long recorrerPedidos(Consumer<Pedido> consumidor);
+}
@@ -0,0 +1,14 @@
+package com.example.pedidosddd.application.ports.out;
+
+import com.example.pedidosddd.application.ports.in.ListarPedidosUseCase.ListarPedidosQuery;
+import com.example.pedidosddd.application.ports.in.ListarPedidosUseCase.PaginaPedidos;
+
+/**
+ * PUERTO DE SALIDA - Consultas de lectura sobre varios pedidos
+ *
+ * <p>Separado de PedidoRepositoryPort: el repositorio trabaja con un agregado por ID, este puerto
+ * sirve listados paginados para back-office.
+ */
+public interface PedidoQueryPort {
+  PaginaPedidos buscarPedidos(ListarPedidosQuery query);
+}
@@ -1,8 +1,10 @@
 package com.example.pedidosddd.application.ports.out;
 
+import com.example.pedidosddd.domain.model.EstadoPedido;
 import com.example.pedidosddd.domain.model.Pedido;
 import com.example.pedidosddd.domain.model.PedidoId;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * PUERTO DE SALIDA - Define cómo la aplicación accede a datos externos En Arquitectura Hexagonal,
@@ -14,4 +16,51 @@ public interface PedidoRepositoryPort {
   Pedido save(Pedido pedido);
 
   void deleteById(PedidoId pedidoId);
+
+  /**
+   * ¿Existe el pedido? Solo cabecera: los adaptadores que puedan lo responden sin cargar items
+   *
+   * <p>Por defecto carga el agregado completo
+   */
+  default boolean existsById(PedidoId pedidoId) {
+    return findById(pedidoId).isPresent();
+  }
+
+  /**
+   * Lee el pedido, le aplica la modificación y lo guarda; vacío si no existe
+   *
+   * <p>Por defecto es findById + save, y sin eventos nuevos no se guarda (no hubo cambios). Un
+   * adaptador que retenga el pedido en memoria (escritura diferida) puede aplicarla sin leer ni
+   * escribir en el almacén en cada llamada: la modificación puede ejecutarse con el pedido
+   * bloqueado, así que no debe hacer E/S.
+   *
+   * @throws ConflictoDeConcurrenciaException si el pedido se modificó desde que se leyó
+   */
+  default Optional<Pedido> modificar(PedidoId pedidoId, Consumer<Pedido> modificacion) {
+    return findById(pedidoId)
+        .map(
+            pedido -> {
+              modificacion.accept(pedido);
+              return pedido.getEventosPendientes().isEmpty() ? pedido : save(pedido);
+            });
+  }
+
+  /**
+   * Estado del pedido sin cargar sus items (vacío si no existe)
+   *
+   * <p>Por defecto carga el agregado completo
+   */
+  default Optional<EstadoPedido> findEstadoById(PedidoId pedidoId) {
+    return findById(pedidoId).map(Pedido::getEstado);
+  }
+
+  /**
+   * ¿Tiene el pedido modificaciones aceptadas que aún no están en el almacén?
+   *
+   * <p>Solo un adaptador que difiera escrituras puede responder que sí; mientras tanto lo que se
+   * mantiene al guardar (proyecciones) va por detrás del agregado. Por defecto, no.
+   */
+  default boolean tieneCambiosSinGuardar(PedidoId pedidoId) {
+    return false;
+  }
 }
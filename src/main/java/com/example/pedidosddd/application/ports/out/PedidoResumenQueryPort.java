@@ -0,0 +1,14 @@
+package com.example.pedidosddd.application.ports.out;
+
+import com.example.pedidosddd.application.ports.in.ConsultarResumenPedidoUseCase.ResumenPedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.util.Optional;
+
+/**
+ * PUERTO DE SALIDA - Lectura de la proyección de resumen de pedidos
+ *
+ * <p>Separado de PedidoRepositoryPort: nunca toca las entidades del lado de escritura.
+ */
+public interface PedidoResumenQueryPort {
+  Optional<ResumenPedido> buscarResumen(PedidoId pedidoId);
+}
@@ -0,0 +1,35 @@
+package com.example.pedidosddd.application.ports.out;
+
+import com.example.pedidosddd.domain.model.Producto;
+import com.example.pedidosddd.domain.model.ProductoId;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * PUERTO DE SALIDA - Catálogo de productos
+ *
+ * <p>Fuente de verdad de nombre y precio: los use cases resuelven el Producto por su ProductoId en
+ * lugar de fiarse de lo que envía el cliente.
+ *
+ * <p>Cada producto lleva una versión que crece con cada cambio de nombre o precio; las cachés la
+ * usan para no sustituir un precio nuevo por uno leído antes.
+ */
+public interface ProductoCatalogPort {
+
+  Optional<ProductoCatalogado> findById(ProductoId productoId);
+
+  /** Búsqueda en bloque; los ids que no existen simplemente no aparecen en el resultado */
+  Map<ProductoId, ProductoCatalogado> findAllById(Collection<ProductoId> productoIds);
+
+  /**
+   * Alta o cambio de nombre/precio; devuelve el producto con su nueva versión
+   *
+   * @throws ConflictoDeConcurrenciaException si otra operación dio de alta o cambió el producto a
+   *     la vez
+   */
+  ProductoCatalogado save(Producto producto);
+
+  /** Producto del catálogo y la versión con la que se leyó */
+  record ProductoCatalogado(Producto producto, long version) {}
+}
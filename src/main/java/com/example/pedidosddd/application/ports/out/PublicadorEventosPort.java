@@ -0,0 +1,20 @@
+package com.example.pedidosddd.application.ports.out;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * PUERTO DE SALIDA - Publicación de eventos de dominio hacia otros sistemas (facturación,
+ * logística...)
+ *
+ * <p>Recibe los eventos ya serializados desde el outbox, en el orden en que se registraron. Si
+ * publicar lanza una excepción, el lote completo se reintenta más tarde: la entrega es "al menos
+ * una vez" y los consumidores deben descartar duplicados por eventoId.
+ */
+public interface PublicadorEventosPort {
+  void publicar(List<EventoPublicable> eventos);
+
+  /** Un evento tal como sale del outbox: payload JSON y metadatos para enrutar y deduplicar */
+  record EventoPublicable(
+      String eventoId, String pedidoId, String tipo, String payload, LocalDateTime ocurridoEn) {}
+}
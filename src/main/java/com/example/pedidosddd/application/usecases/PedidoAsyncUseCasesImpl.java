@@ -0,0 +1,107 @@
+package com.example.pedidosddd.application.usecases;
+
+import com.example.pedidosddd.application.ports.in.AgregarProductoAsyncUseCase;
+import com.example.pedidosddd.application.ports.in.AgregarProductoUseCase;
+import com.example.pedidosddd.application.ports.in.AgregarProductoUseCase.AgregarProductoCommand;
+import com.example.pedidosddd.application.ports.in.ConsultarPedidoAsyncUseCase;
+import com.example.pedidosddd.application.ports.in.ConsultarPedidoUseCase;
+import com.example.pedidosddd.application.ports.in.ConsultarResumenPedidoUseCase;
+import com.example.pedidosddd.application.ports.in.ConsultarResumenPedidoUseCase.ResumenPedido;
+import com.example.pedidosddd.application.ports.in.CrearPedidoAsyncUseCase;
+import com.example.pedidosddd.application.ports.in.CrearPedidoUseCase;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * IMPLEMENTACIÓN DE USE CASES ASÍNCRONOS - Los use cases síncronos, en un ejecutor acotado
+ *
+ * <p>¿Qué hace? Delega en los use cases de siempre (misma lógica, mismas métricas y reintentos)
+ * pero los ejecuta en un pool de tamaño fijo con cola acotada. El hilo de Tomcat queda libre
+ * mientras se espera a la base de datos.
+ *
+ * <p>Backpressure: con la cola llena no se encola más trabajo; el futuro falla con
+ * RejectedExecutionException y el adaptador de entrada decide qué responder (HTTP 503).
+ *
+ * <p>El ejecutor lo crea la configuración de infraestructura; este objeto lo cierra al pararse. Sin
+ * ejecutor (null, con hilos virtuales) el use case se ejecuta en el hilo que llama y el futuro se
+ * devuelve ya terminado: no hay cola ni rechazos.
+ */
+public class PedidoAsyncUseCasesImpl
+    implements CrearPedidoAsyncUseCase,
+        AgregarProductoAsyncUseCase,
+        ConsultarPedidoAsyncUseCase,
+        AutoCloseable {
+
+  private final CrearPedidoUseCase crearPedido;
+  private final AgregarProductoUseCase agregarProducto;
+  private final ConsultarPedidoUseCase consultarPedido;
+  private final ConsultarResumenPedidoUseCase consultarResumen;
+  // null: todo se ejecuta en el hilo que llama
+  private final ExecutorService ejecutor;
+
+  public PedidoAsyncUseCasesImpl(
+      CrearPedidoUseCase crearPedido,
+      AgregarProductoUseCase agregarProducto,
+      ConsultarPedidoUseCase consultarPedido,
+      ConsultarResumenPedidoUseCase consultarResumen,
+      ExecutorService ejecutor) {
+    this.crearPedido = crearPedido;
+    this.agregarProducto = agregarProducto;
+    this.consultarPedido = consultarPedido;
+    this.consultarResumen = consultarResumen;
+    this.ejecutor = ejecutor;
+  }
+
+  @Override
+  public CompletableFuture<PedidoId> crearNuevoPedidoAsync() {
+    return enEjecutor(crearPedido::crearNuevoPedido);
+  }
+
+  @Override
+  public CompletableFuture<Void> agregarProductoAsync(AgregarProductoCommand command) {
+    return enEjecutor(
+        () -> {
+          agregarProducto.agregarProducto(command);
+          return null;
+        });
+  }
+
+  @Override
+  public CompletableFuture<Pedido> consultarPedidoPorIdAsync(PedidoId pedidoId) {
+    return enEjecutor(() -> consultarPedido.consultarPedidoPorId(pedidoId));
+  }
+
+  @Override
+  public CompletableFuture<Optional<ResumenPedido>> consultarResumenAsync(PedidoId pedidoId) {
+    return enEjecutor(() -> consultarResumen.consultarResumen(pedidoId));
+  }
+
+  /** Los trabajos ya aceptados terminan; no se aceptan nuevos */
+  @Override
+  public void close() {
+    if (ejecutor != null) {
+      ejecutor.shutdown();
+    }
+  }
+
+  // El rechazo (o el error del use case) llega siempre por el futuro, nunca por la llamada
+  private <T> CompletableFuture<T> enEjecutor(Supplier<T> accion) {
+    if (ejecutor == null) {
+      try {
+        return CompletableFuture.completedFuture(accion.get());
+      } catch (RuntimeException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+    try {
+      return CompletableFuture.supplyAsync(accion, ejecutor);
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+}
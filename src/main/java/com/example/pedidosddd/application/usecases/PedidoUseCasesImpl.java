@@ -1,10 +1,30 @@
 package com.example.pedidosddd.application.usecases;
 
 import com.example.pedidosddd.application.ports.in.AgregarProductoUseCase;
+import com.example.pedidosddd.application.ports.in.AgregarProductosEnLoteUseCase;
+import com.example.pedidosddd.application.ports.in.CompletarPedidoUseCase;
 import com.example.pedidosddd.application.ports.in.ConsultarPedidoUseCase;
+import com.example.pedidosddd.application.ports.in.ConsultarResumenPedidoUseCase;
 import com.example.pedidosddd.application.ports.in.CrearPedidoUseCase;
+import com.example.pedidosddd.application.ports.in.ExportarPedidosUseCase;
+import com.example.pedidosddd.application.ports.in.ListarPedidosUseCase;
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
+import com.example.pedidosddd.application.ports.out.PedidoExportPort;
+import com.example.pedidosddd.application.ports.out.PedidoQueryPort;
 import com.example.pedidosddd.application.ports.out.PedidoRepositoryPort;
+import com.example.pedidosddd.application.ports.out.PedidoResumenQueryPort;
+import com.example.pedidosddd.application.ports.out.ProductoCatalogPort;
+import com.example.pedidosddd.application.ports.out.ProductoCatalogPort.ProductoCatalogado;
 import com.example.pedidosddd.domain.model.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.springframework.stereotype.Service;
 
 /**
@@ -12,15 +32,53 @@ import org.springframework.stereotype.Service;
  * van las implementaciones de todos los puertos de entrada
  *
  * <p>¿Qué hace? Orquesta las operaciones del dominio sin lógica de negocio propia
+ *
+ * <p>Concurrencia: las operaciones leer → modificar → guardar se reintentan (recargando el pedido)
+ * cuando el puerto de salida detecta un conflicto de versión, hasta MAX_INTENTOS veces. Se expresan
+ * con PedidoRepositoryPort.modificar: así el adaptador de escritura diferida puede aplicarlas sobre
+ * el pedido que retiene en memoria.
+ *
+ * <p>Métricas: cada use case se mide en el timer pedidos.usecase{operacion, exception} (con
+ * histograma para p99 en Prometheus) y los conflictos en pedidos.usecase.conflictos{resultado}.
  */
 @Service
 public class PedidoUseCasesImpl
-    implements CrearPedidoUseCase, AgregarProductoUseCase, ConsultarPedidoUseCase {
+    implements CrearPedidoUseCase,
+        AgregarProductoUseCase,
+        AgregarProductosEnLoteUseCase,
+        CompletarPedidoUseCase,
+        ConsultarPedidoUseCase,
+        ConsultarResumenPedidoUseCase,
+        ListarPedidosUseCase,
+        ExportarPedidosUseCase {
+
+  // Intentos totales ante ConflictoDeConcurrenciaException antes de rendirse
+  static final int MAX_INTENTOS = 3;
 
   private final PedidoRepositoryPort pedidoRepository;
+  private final PedidoQueryPort pedidoQuery;
+  private final PedidoExportPort pedidoExport;
+  private final PedidoResumenQueryPort pedidoResumenQuery;
+  private final ProductoCatalogPort catalogo;
+  private final MeterRegistry meterRegistry;
+  private final Counter conflictosReintentados;
+  private final Counter conflictosAgotados;
 
-  public PedidoUseCasesImpl(PedidoRepositoryPort pedidoRepository) {
+  public PedidoUseCasesImpl(
+      PedidoRepositoryPort pedidoRepository,
+      PedidoQueryPort pedidoQuery,
+      PedidoExportPort pedidoExport,
+      PedidoResumenQueryPort pedidoResumenQuery,
+      ProductoCatalogPort catalogo,
+      MeterRegistry meterRegistry) {
     this.pedidoRepository = pedidoRepository;
+    this.pedidoQuery = pedidoQuery;
+    this.pedidoExport = pedidoExport;
+    this.pedidoResumenQuery = pedidoResumenQuery;
+    this.catalogo = catalogo;
+    this.meterRegistry = meterRegistry;
+    this.conflictosReintentados = conflictos("reintentado");
+    this.conflictosAgotados = conflictos("agotado");
   }
 
   /**
@@ -29,41 +87,108 @@ public class PedidoUseCasesImpl
    */
   @Override
   public PedidoId crearNuevoPedido() {
-    // 1. El dominio se encarga de crear el pedido
-    Pedido nuevoPedido = PedidoFactory.crearNuevoPedido();
+    return medir(
+        "crear",
+        () -> {
+          // 1. El dominio se encarga de crear el pedido
+          Pedido nuevoPedido = PedidoFactory.crearNuevoPedido();
 
-    // 2. Usamos el puerto de salida para persistir
-    Pedido pedidoGuardado = pedidoRepository.save(nuevoPedido);
+          // 2. Usamos el puerto de salida para persistir
+          Pedido pedidoGuardado = pedidoRepository.save(nuevoPedido);
 
-    // 3. Retornamos el ID
-    return pedidoGuardado.getId();
+          // 3. Retornamos el ID
+          return pedidoGuardado.getId();
+        });
   }
 
   /**
    * USE CASE: Agregar producto a un pedido 🎯 DDD: Recibe Command con Value Objects del dominio, no
-   * primitivos Paso 1: Buscar el pedido (ya tenemos PedidoId del dominio) Paso 2: Crear el producto
-   * y agregarlo (lógica de dominio) Paso 3: Guardar los cambios
+   * primitivos Paso 1: Resolver el producto en el catálogo Paso 2: Buscar el pedido (ya tenemos
+   * PedidoId del dominio) y agregarlo (lógica de dominio) Paso 3: Guardar los cambios
    */
   @Override
   public void agregarProducto(AgregarProductoCommand command) {
-    // 1. Buscar directamente - ya tenemos el Value Object del dominio
-    Pedido pedido =
-        pedidoRepository
-            .findById(command.pedidoId())
-            .orElseThrow(
-                () ->
-                    new IllegalArgumentException(
-                        "Pedido no encontrado: " + command.pedidoId().getValue()));
+    conReintentos(
+        "agregar_producto",
+        () -> {
+          // 1. Nombre y precio vienen del catálogo, no del cliente (fuera de modificar: es E/S)
+          Producto producto =
+              catalogo
+                  .findById(command.productoId())
+                  .map(ProductoCatalogado::producto)
+                  .orElseThrow(() -> productoNoEncontrado(command.productoId()));
+
+          // 2 y 3. El dominio agrega el producto y el puerto de salida guarda el pedido
+          return pedidoRepository
+              .modificar(
+                  command.pedidoId(),
+                  pedido -> pedido.agregarProducto(producto, command.cantidad()))
+              .orElseThrow(() -> pedidoNoEncontrado(command.pedidoId()));
+        });
+  }
 
-    // 2. Crear el producto y agregarlo (lógica de dominio)
-    Producto producto =
-        new Producto(command.productoId(), command.nombreProducto(), command.precioProducto());
+  /**
+   * USE CASE: Agregar varios productos a un pedido en lote Paso 1: Buscar el pedido una sola vez y
+   * todos sus productos en una sola consulta al catálogo Paso 2: Aplicar cada línea, registrando
+   * las que el dominio rechaza Paso 3: Guardar una sola vez si alguna línea se aplicó
+   */
+  @Override
+  public ResultadoLote agregarProductos(AgregarProductosEnLoteCommand command) {
+    return conReintentos(
+        "agregar_lote",
+        () -> {
+          // 1. Una sola búsqueda en el catálogo y una sola carga del agregado para todo el lote
+          Map<ProductoId, ProductoCatalogado> productos =
+              catalogo.findAllById(
+                  command.lineas().stream().map(AgregarProductoCommand::productoId).toList());
 
-    // El dominio se encarga de la lógica de agregar el producto
-    pedido.agregarProducto(producto, command.cantidad());
+          // 2 y 3. Aplicar todas las líneas y un único save (una transacción) si alguna se aplicó
+          List<ResultadoLote> resultado = new ArrayList<>(1);
+          pedidoRepository
+              .modificar(
+                  command.pedidoId(),
+                  pedido -> resultado.add(aplicarLineas(pedido, command, productos)))
+              .orElseThrow(() -> pedidoNoEncontrado(command.pedidoId()));
+          return resultado.get(0);
+        });
+  }
 
-    // 3. Guardar usando el puerto de salida
-    pedidoRepository.save(pedido);
+  /** Aplica cada línea; un error en una no invalida las demás */
+  private static ResultadoLote aplicarLineas(
+      Pedido pedido,
+      AgregarProductosEnLoteCommand command,
+      Map<ProductoId, ProductoCatalogado> productos) {
+    List<ErrorLinea> errores = new ArrayList<>();
+    int agregadas = 0;
+    for (int i = 0; i < command.lineas().size(); i++) {
+      AgregarProductoCommand linea = command.lineas().get(i);
+      ProductoCatalogado catalogado = productos.get(linea.productoId());
+      if (catalogado == null) {
+        errores.add(new ErrorLinea(i, productoNoEncontrado(linea.productoId()).getMessage()));
+        continue;
+      }
+      try {
+        pedido.agregarProducto(catalogado.producto(), linea.cantidad());
+        agregadas++;
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        errores.add(new ErrorLinea(i, e.getMessage()));
+      }
+    }
+    return new ResultadoLote(agregadas, errores);
+  }
+
+  /**
+   * USE CASE: Completar un pedido Paso 1: Buscar el pedido Paso 2: Completarlo (regla de dominio:
+   * PENDIENTE y con items) Paso 3: Guardarlo; con escritura diferida, en el momento
+   */
+  @Override
+  public void completarPedido(PedidoId pedidoId) {
+    conReintentos(
+        "completar",
+        () ->
+            pedidoRepository
+                .modificar(pedidoId, Pedido::completarPedido)
+                .orElseThrow(() -> pedidoNoEncontrado(pedidoId)));
   }
 
   /**
@@ -74,9 +199,113 @@ public class PedidoUseCasesImpl
   @Override
   public Pedido consultarPedidoPorId(PedidoId pedidoId) {
     // 1. Buscar directamente - ya tenemos el Value Object del dominio
-    return pedidoRepository
-        .findById(pedidoId)
-        .orElseThrow(
-            () -> new IllegalArgumentException("Pedido no encontrado: " + pedidoId.getValue()));
+    return medir("consultar", () -> buscarPedido(pedidoId));
+  }
+
+  /** USE CASE: Consultar el estado de un pedido - plan de carga de solo cabecera */
+  @Override
+  public EstadoPedido consultarEstado(PedidoId pedidoId) {
+    return medir(
+        "consultar_estado",
+        () ->
+            pedidoRepository
+                .findEstadoById(pedidoId)
+                .orElseThrow(() -> pedidoNoEncontrado(pedidoId)));
+  }
+
+  /** USE CASE: Comprobar si un pedido existe - plan de carga de solo cabecera */
+  @Override
+  public boolean existePedido(PedidoId pedidoId) {
+    return medir("existe", () -> pedidoRepository.existsById(pedidoId));
+  }
+
+  /**
+   * USE CASE: Consultar el resumen de un pedido - lado de lectura, sin cargar el agregado
+   *
+   * <p>Con escritura diferida la proyección no ve lo que sigue en el buzón: para ese pedido no hay
+   * resumen y se lee el agregado, así quien acaba de modificarlo ve su cambio.
+   */
+  @Override
+  public Optional<ResumenPedido> consultarResumen(PedidoId pedidoId) {
+    return medir(
+        "consultar_resumen",
+        () ->
+            pedidoRepository.tieneCambiosSinGuardar(pedidoId)
+                ? Optional.<ResumenPedido>empty()
+                : pedidoResumenQuery.buscarResumen(pedidoId));
+  }
+
+  /** USE CASE: Listar pedidos paginados (keyset) - delega en el puerto de consultas */
+  @Override
+  public PaginaPedidos listarPedidos(ListarPedidosQuery query) {
+    return medir("listar", () -> pedidoQuery.buscarPedidos(query));
+  }
+
+  /** USE CASE: Exportar todos los pedidos, uno a uno, al destino que indique el adaptador */
+  @Override
+  public long exportarPedidos(Consumer<Pedido> destino) {
+    return pedidoExport.recorrerPedidos(destino);
+  }
+
+  private static IllegalArgumentException productoNoEncontrado(ProductoId productoId) {
+    return new IllegalArgumentException("Producto no encontrado: " + productoId.getValue());
+  }
+
+  private static IllegalArgumentException pedidoNoEncontrado(PedidoId pedidoId) {
+    return new IllegalArgumentException("Pedido no encontrado: " + pedidoId.getValue());
+  }
+
+  private Pedido buscarPedido(PedidoId pedidoId) {
+    return pedidoRepository.findById(pedidoId).orElseThrow(() -> pedidoNoEncontrado(pedidoId));
+  }
+
+  /**
+   * Ejecuta una operación leer → modificar → guardar y la repite desde la lectura si otro proceso
+   * guardó el mismo pedido entremedias. Agotados los intentos, propaga el conflicto. El timer cubre
+   * todos los intentos: es la latencia que ve el cliente.
+   */
+  private <T> T conReintentos(String nombre, Supplier<T> operacion) {
+    return medir(
+        nombre,
+        () -> {
+          for (int intento = 1; ; intento++) {
+            try {
+              return operacion.get();
+            } catch (ConflictoDeConcurrenciaException e) {
+              if (intento >= MAX_INTENTOS) {
+                conflictosAgotados.increment();
+                throw e;
+              }
+              conflictosReintentados.increment();
+            }
+          }
+        });
+  }
+
+  /** Mide la operación en pedidos.usecase; exception = "none" o la clase de la excepción */
+  private <T> T medir(String operacion, Supplier<T> accion) {
+    Timer.Sample muestra = Timer.start(meterRegistry);
+    String exception = "none";
+    try {
+      return accion.get();
+    } catch (RuntimeException e) {
+      exception = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      muestra.stop(
+          Timer.builder("pedidos.usecase")
+              .description("Latencia de los use cases de pedidos")
+              .tag("operacion", operacion)
+              .tag("exception", exception)
+              .publishPercentileHistogram()
+              .register(meterRegistry));
+    }
+  }
+
+  private Counter conflictos(String resultado) {
+    return Counter.builder("pedidos.usecase.conflictos")
+        .description("Conflictos de versión detectados en los use cases")
+        .tag("resultado", resultado)
+        .register(meterRegistry);
   }
 }
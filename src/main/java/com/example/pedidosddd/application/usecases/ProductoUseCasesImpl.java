@@ -0,0 +1,40 @@
+package com.example.pedidosddd.application.usecases;
+
+import com.example.pedidosddd.application.ports.in.RegistrarProductoUseCase;
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
+import com.example.pedidosddd.application.ports.out.ProductoCatalogPort;
+import com.example.pedidosddd.domain.model.Producto;
+import org.springframework.stereotype.Service;
+
+/**
+ * IMPLEMENTACIÓN DE USE CASES - Mantenimiento del catálogo de productos
+ *
+ * <p>Registrar es "el último gana": ante un conflicto con otra alta o cambio simultáneo se vuelve a
+ * guardar una vez, ya sobre la fila que dejó la otra operación.
+ */
+@Service
+public class ProductoUseCasesImpl implements RegistrarProductoUseCase {
+
+  // Intentos totales ante ConflictoDeConcurrenciaException antes de rendirse
+  static final int MAX_INTENTOS = 2;
+
+  private final ProductoCatalogPort catalogo;
+
+  public ProductoUseCasesImpl(ProductoCatalogPort catalogo) {
+    this.catalogo = catalogo;
+  }
+
+  @Override
+  public long registrarProducto(RegistrarProductoCommand command) {
+    Producto producto = new Producto(command.productoId(), command.nombre(), command.precio());
+    for (int intento = 1; ; intento++) {
+      try {
+        return catalogo.save(producto).version();
+      } catch (ConflictoDeConcurrenciaException e) {
+        if (intento >= MAX_INTENTOS) {
+          throw e;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.example.pedidosddd.domain.event;
+
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.time.LocalDateTime;
+
+/**
+ * DOMAIN EVENT - Algo relevante que ya le ocurrió a un Pedido
+ *
+ * <p>Los registra el propio agregado en sus métodos de negocio; la persistencia los guarda junto al
+ * pedido (outbox) para que otros sistemas reaccionen sin consultar la tabla de pedidos.
+ */
+public interface EventoPedido {
+  PedidoId pedidoId();
+
+  LocalDateTime ocurridoEn();
+}
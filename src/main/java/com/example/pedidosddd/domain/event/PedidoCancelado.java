@@ -0,0 +1,8 @@
+package com.example.pedidosddd.domain.event;
+
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.time.LocalDateTime;
+
+/** DOMAIN EVENT - El pedido se canceló */
+public record PedidoCancelado(PedidoId pedidoId, LocalDateTime ocurridoEn)
+    implements EventoPedido {}
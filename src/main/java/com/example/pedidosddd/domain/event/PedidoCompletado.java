@@ -0,0 +1,9 @@
+package com.example.pedidosddd.domain.event;
+
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** DOMAIN EVENT - El pedido se completó; lleva el total para facturación */
+public record PedidoCompletado(PedidoId pedidoId, BigDecimal total, LocalDateTime ocurridoEn)
+    implements EventoPedido {}
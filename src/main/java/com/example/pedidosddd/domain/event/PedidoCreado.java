@@ -0,0 +1,7 @@
+package com.example.pedidosddd.domain.event;
+
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.time.LocalDateTime;
+
+/** DOMAIN EVENT - Se creó un pedido nuevo (vacío, PENDIENTE) */
+public record PedidoCreado(PedidoId pedidoId, LocalDateTime ocurridoEn) implements EventoPedido {}
@@ -0,0 +1,16 @@
+package com.example.pedidosddd.domain.event;
+
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.domain.model.ProductoId;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** DOMAIN EVENT - Se agregaron unidades de un producto (cantidad es lo agregado, no el total) */
+public record ProductoAgregado(
+    PedidoId pedidoId,
+    ProductoId productoId,
+    String nombreProducto,
+    int cantidad,
+    BigDecimal precioUnitario,
+    LocalDateTime ocurridoEn)
+    implements EventoPedido {}
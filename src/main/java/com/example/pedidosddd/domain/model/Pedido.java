@@ -1,10 +1,17 @@
 package com.example.pedidosddd.domain.model;
 
+import com.example.pedidosddd.domain.event.EventoPedido;
+import com.example.pedidosddd.domain.event.PedidoCancelado;
+import com.example.pedidosddd.domain.event.PedidoCompletado;
+import com.example.pedidosddd.domain.event.PedidoCreado;
+import com.example.pedidosddd.domain.event.ProductoAgregado;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -13,18 +20,29 @@ import java.util.Optional;
  */
 public class Pedido {
   private PedidoId id;
-  private List<PedidoItem> items;
+  // Índice ProductoId → PedidoItem que conserva el orden de inserción de las líneas
+  private Map<ProductoId, PedidoItem> items;
+  // Vista inmutable de las líneas, se recalcula solo tras una modificación
+  private List<PedidoItem> itemsView;
   private EstadoPedido estado;
+  // Total acumulado, se mantiene en cada modificación para no recorrer los items al consultar
+  private BigDecimal total;
   private LocalDateTime fechaCreacion;
   private LocalDateTime fechaActualizacion;
+  // Versión para concurrencia optimista: la asigna la persistencia, null si nunca se guardó
+  private Long version;
+  // Eventos de dominio registrados y aún no persistidos (no forman parte del estado del pedido)
+  private final List<EventoPedido> eventosPendientes = new ArrayList<>();
 
   // Constructor para un nuevo pedido
   public Pedido() {
     this.id = new PedidoId();
-    this.items = new ArrayList<>();
+    this.items = new LinkedHashMap<>();
     this.estado = EstadoPedido.PENDIENTE;
+    this.total = BigDecimal.ZERO;
     this.fechaCreacion = LocalDateTime.now();
     this.fechaActualizacion = LocalDateTime.now();
+    eventosPendientes.add(new PedidoCreado(id, fechaCreacion));
   }
 
   // Constructor para recrear un Pedido desde la persistencia (usado por el repositorio)
@@ -34,6 +52,32 @@ public class Pedido {
       EstadoPedido estado,
       LocalDateTime fechaCreacion,
       LocalDateTime fechaActualizacion) {
+    this(id, items, estado, fechaCreacion, fechaActualizacion, null);
+  }
+
+  /**
+   * Constructor para recrear un Pedido con el total ya persistido. Si total es null (datos
+   * anteriores a la columna) se calcula una vez a partir de los items.
+   */
+  public Pedido(
+      PedidoId id,
+      List<PedidoItem> items,
+      EstadoPedido estado,
+      LocalDateTime fechaCreacion,
+      LocalDateTime fechaActualizacion,
+      BigDecimal total) {
+    this(id, items, estado, fechaCreacion, fechaActualizacion, total, null);
+  }
+
+  /** Constructor completo para recrear un Pedido con su total y su versión de persistencia */
+  public Pedido(
+      PedidoId id,
+      List<PedidoItem> items,
+      EstadoPedido estado,
+      LocalDateTime fechaCreacion,
+      LocalDateTime fechaActualizacion,
+      BigDecimal total,
+      Long version) {
     if (id == null
         || items == null
         || estado == null
@@ -42,10 +86,19 @@ public class Pedido {
       throw new IllegalArgumentException("All parameters must be non-null for Pedido recreation.");
     }
     this.id = id;
-    this.items = new ArrayList<>(items); // Defensive copy
+    this.items = new LinkedHashMap<>(); // Defensive copy
+    for (PedidoItem item : items) {
+      // Si la persistencia trae el mismo producto repetido, se fusiona en una sola línea
+      this.items.merge(
+          item.getProducto().getId(),
+          item,
+          (actual, otro) -> actual.aumentarCantidad(otro.getCantidad()));
+    }
     this.estado = estado;
+    this.total = total != null ? total : sumarItems();
     this.fechaCreacion = fechaCreacion;
     this.fechaActualizacion = fechaActualizacion;
+    this.version = version;
   }
 
   // ========== COMPORTAMIENTO DE NEGOCIO ==========
@@ -60,21 +113,30 @@ public class Pedido {
       throw new IllegalArgumentException("Producto y cantidad deben ser válidos.");
     }
 
-    // Buscar si ya existe un item con el mismo producto
-    Optional<PedidoItem> existingItem =
-        items.stream()
-            .filter(item -> item.getProducto().getId().equals(producto.getId()))
-            .findFirst();
+    // Buscar si ya existe un item con el mismo producto - O(1) por el índice
+    PedidoItem existingItem = items.get(producto.getId());
 
-    if (existingItem.isPresent()) {
-      // Reemplazar el item existente con uno nuevo con cantidad aumentada
-      items.remove(existingItem.get());
-      items.add(existingItem.get().aumentarCantidad(cantidad));
+    if (existingItem != null) {
+      // Reemplazar el item existente en su misma posición con la cantidad aumentada
+      PedidoItem actualizado = existingItem.aumentarCantidad(cantidad);
+      items.put(producto.getId(), actualizado);
+      this.total = total.subtract(existingItem.getTotal()).add(actualizado.getTotal());
     } else {
-      // Agregar nuevo item
-      items.add(new PedidoItem(producto, cantidad));
+      // Agregar nuevo item al final
+      PedidoItem nuevo = new PedidoItem(producto, cantidad);
+      items.put(producto.getId(), nuevo);
+      this.total = total.add(nuevo.getTotal());
     }
+    this.itemsView = null;
     this.fechaActualizacion = LocalDateTime.now();
+    eventosPendientes.add(
+        new ProductoAgregado(
+            id,
+            producto.getId(),
+            producto.getNombre(),
+            cantidad,
+            producto.getPrecio(),
+            fechaActualizacion));
   }
 
   /** Regla de negocio: Solo se pueden completar pedidos pendientes con items */
@@ -87,21 +149,71 @@ public class Pedido {
     }
     this.estado = EstadoPedido.COMPLETADO;
     this.fechaActualizacion = LocalDateTime.now();
-    // TODO: En proyectos avanzados, aquí se dispararía un Domain Event
-    // DomainEventPublisher.publish(new PedidoCompletadoEvent(this.id));
+    // Domain Event: se registra aquí y lo publica la infraestructura tras guardar (outbox)
+    eventosPendientes.add(new PedidoCompletado(id, total, fechaActualizacion));
   }
 
   public void cancelarPedido() {
     if (estado == EstadoPedido.COMPLETADO) {
       throw new IllegalStateException("Completed order cannot be cancelled.");
     }
+    if (estado == EstadoPedido.CANCELADO) {
+      return; // Ya cancelado: no hay transición ni evento nuevo
+    }
     this.estado = EstadoPedido.CANCELADO;
     this.fechaActualizacion = LocalDateTime.now();
-    // Podríamos disparar un evento de dominio aquí, e.g., new PedidoCanceladoEvent(this.id);
+    eventosPendientes.add(new PedidoCancelado(id, fechaActualizacion));
+  }
+
+  // ========== REPRODUCCIÓN DE EVENTOS (event sourcing) ==========
+
+  /**
+   * Aplica eventos ya ocurridos sobre este estado, sin volver a validar reglas ni registrar eventos
+   * nuevos: el historial es la fuente de verdad. Solo lo usa PedidoFactory al recrear el pedido.
+   */
+  void reproducir(List<EventoPedido> historial, Long version) {
+    for (EventoPedido evento : historial) {
+      if (!id.equals(evento.pedidoId())) {
+        throw new IllegalArgumentException("El evento no pertenece al pedido " + id.getValue());
+      }
+      if (evento instanceof ProductoAgregado agregado) {
+        Producto producto =
+            new Producto(
+                agregado.productoId(), agregado.nombreProducto(), agregado.precioUnitario());
+        PedidoItem existente = items.get(producto.getId());
+        PedidoItem actualizado =
+            existente != null
+                ? existente.aumentarCantidad(agregado.cantidad())
+                : new PedidoItem(producto, agregado.cantidad());
+        items.put(producto.getId(), actualizado);
+        this.total =
+            total
+                .subtract(existente != null ? existente.getTotal() : BigDecimal.ZERO)
+                .add(actualizado.getTotal());
+        this.itemsView = null;
+      } else if (evento instanceof PedidoCompletado) {
+        this.estado = EstadoPedido.COMPLETADO;
+      } else if (evento instanceof PedidoCancelado) {
+        this.estado = EstadoPedido.CANCELADO;
+      } else if (!(evento instanceof PedidoCreado)) {
+        throw new IllegalArgumentException("Evento de dominio no soportado: " + evento);
+      }
+      this.fechaActualizacion = evento.ocurridoEn();
+    }
+    this.version = version;
   }
 
+  /** Total del pedido en O(1): se mantiene al agregar productos */
   public BigDecimal calcularTotal() {
-    return items.stream().map(PedidoItem::getTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+    return total;
+  }
+
+  private BigDecimal sumarItems() {
+    BigDecimal suma = BigDecimal.ZERO;
+    for (PedidoItem item : items.values()) {
+      suma = suma.add(item.getTotal());
+    }
+    return suma;
   }
 
   // ========== GETTERS ==========
@@ -113,7 +225,15 @@ public class Pedido {
 
   /** Retorna una vista inmutable de los items para proteger la invariante del agregado */
   public List<PedidoItem> getItems() {
-    return Collections.unmodifiableList(items);
+    if (itemsView == null) {
+      itemsView = Collections.unmodifiableList(new ArrayList<>(items.values()));
+    }
+    return itemsView;
+  }
+
+  /** Busca la línea de un producto en O(1) */
+  public Optional<PedidoItem> getItem(ProductoId productoId) {
+    return Optional.ofNullable(items.get(productoId));
   }
 
   public EstadoPedido getEstado() {
@@ -128,6 +248,35 @@ public class Pedido {
     return fechaActualizacion;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
+  // ========== DOMAIN EVENTS ==========
+
+  /** Eventos registrados desde la última vez que el pedido se guardó, en orden */
+  public List<EventoPedido> getEventosPendientes() {
+    return List.copyOf(eventosPendientes);
+  }
+
+  /** Lo llama la persistencia cuando los eventos quedaron guardados junto al pedido */
+  public void limpiarEventos() {
+    eventosPendientes.clear();
+  }
+
+  /**
+   * Vuelve a marcar como pendientes eventos cuyo efecto ya está en este estado pero que aún no se
+   * guardaron (escritura diferida). Solo lo usa PedidoFactory.
+   */
+  void registrarEventosPendientes(List<EventoPedido> eventos) {
+    for (EventoPedido evento : eventos) {
+      if (!id.equals(evento.pedidoId())) {
+        throw new IllegalArgumentException("El evento no pertenece al pedido " + id.getValue());
+      }
+    }
+    eventosPendientes.addAll(eventos);
+  }
+
   // Nota: No hay setters públicos para propiedades mutables, el estado se cambia a través de los
   // métodos de negocio.
 }
@@ -1,5 +1,8 @@
 package com.example.pedidosddd.domain.model;
 
+import com.example.pedidosddd.domain.event.EventoPedido;
+import com.example.pedidosddd.domain.event.PedidoCreado;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /** Factory para la creación de Pedidos Encapsula la lógica de construcción y validación inicial */
@@ -17,4 +20,82 @@ public class PedidoFactory {
       LocalDateTime fechaActualizacion) {
     return new Pedido(id, items, estado, fechaCreacion, fechaActualizacion);
   }
+
+  /** Recrea un Pedido reutilizando el total ya persistido (evita recorrer los items) */
+  public static Pedido recrearPedidoDesdeRepositorio(
+      PedidoId id,
+      java.util.List<PedidoItem> items,
+      EstadoPedido estado,
+      LocalDateTime fechaCreacion,
+      LocalDateTime fechaActualizacion,
+      BigDecimal total) {
+    return new Pedido(id, items, estado, fechaCreacion, fechaActualizacion, total);
+  }
+
+  /** Recrea un Pedido con su total y la versión leída (concurrencia optimista) */
+  public static Pedido recrearPedidoDesdeRepositorio(
+      PedidoId id,
+      java.util.List<PedidoItem> items,
+      EstadoPedido estado,
+      LocalDateTime fechaCreacion,
+      LocalDateTime fechaActualizacion,
+      BigDecimal total,
+      Long version) {
+    return new Pedido(id, items, estado, fechaCreacion, fechaActualizacion, total, version);
+  }
+
+  /**
+   * Producto de una línea ya persistida, sin volver a validarlo
+   *
+   * <p>Solo para adaptadores que leen lo que el propio dominio validó al guardarlo (mapper JPA,
+   * codec binario). Los datos de entrada siguen pasando por el constructor público.
+   */
+  public static Producto rehidratarProducto(ProductoId id, String nombre, BigDecimal precio) {
+    return Producto.rehidratar(id, nombre, precio);
+  }
+
+  /** Línea de pedido ya persistida, sin volver a validarla (ver rehidratarProducto) */
+  public static PedidoItem rehidratarItem(Producto producto, int cantidad) {
+    return PedidoItem.rehidratar(producto, cantidad);
+  }
+
+  /**
+   * Adjunta al pedido eventos ya aplicados a su estado y todavía sin persistir
+   *
+   * <p>Para la escritura diferida: varias modificaciones se acumulan en memoria y se guardan de una
+   * vez, con todos sus eventos. El estado no cambia; solo los eventos pendientes.
+   */
+  public static Pedido conEventosPendientes(Pedido pedido, java.util.List<EventoPedido> eventos) {
+    pedido.registrarEventosPendientes(eventos);
+    return pedido;
+  }
+
+  /**
+   * Recrea un Pedido a partir de su historial de eventos
+   *
+   * <p>snapshot es el estado en algún punto del historial (null = desde el principio, el primer
+   * evento debe ser PedidoCreado) y eventos la cola posterior a ese punto, en orden. version es la
+   * posición del último evento aplicado.
+   */
+  public static Pedido recrearPedidoDesdeEventos(
+      Pedido snapshot, java.util.List<EventoPedido> eventos, Long version) {
+    Pedido pedido = snapshot;
+    java.util.List<EventoPedido> cola = eventos;
+    if (pedido == null) {
+      if (eventos.isEmpty() || !(eventos.get(0) instanceof PedidoCreado creado)) {
+        throw new IllegalArgumentException("El historial de un pedido empieza con PedidoCreado");
+      }
+      pedido =
+          new Pedido(
+              creado.pedidoId(),
+              java.util.List.of(),
+              EstadoPedido.PENDIENTE,
+              creado.ocurridoEn(),
+              creado.ocurridoEn(),
+              BigDecimal.ZERO);
+      cola = eventos.subList(1, eventos.size());
+    }
+    pedido.reproducir(cola, version);
+    return pedido;
+  }
 }
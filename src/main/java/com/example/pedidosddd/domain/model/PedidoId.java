@@ -6,25 +6,57 @@ import java.util.UUID;
 /**
  * VALUE OBJECT - Identidad única de un Pedido Características de un Value Object: - Inmutable
  * (campos final) - Igualdad por valor (equals/hashCode) - Sin identidad propia
+ *
+ * <p>Los ids nuevos son UUID v7 (ordenados en el tiempo); el valor sigue siendo su forma de texto
+ * canónica, la persistencia decide cómo guardarlo.
+ *
+ * <p>Un id recibido como texto se normaliza a esa forma (minúsculas) y lo que no es un UUID se
+ * rechaza: así la caché, la escritura diferida y las particiones ven una sola clave por pedido
+ * aunque el cliente escriba el id de otra manera.
  */
 public class PedidoId {
   private final String value;
+  private final UUID uuid;
 
   public PedidoId() {
-    this.value = UUID.randomUUID().toString();
+    this.uuid = UuidV7.generar();
+    this.value = uuid.toString();
   }
 
   public PedidoId(String value) {
     if (value == null || value.isBlank()) {
       throw new IllegalArgumentException("PedidoId cannot be null or empty");
     }
-    this.value = value;
+    this.uuid = parsear(value);
+    this.value = uuid.toString();
+  }
+
+  /** Id ya leído como UUID (clave primaria, codec binario): sin volver a parsear texto */
+  public PedidoId(UUID uuid) {
+    if (uuid == null) {
+      throw new IllegalArgumentException("PedidoId cannot be null or empty");
+    }
+    this.uuid = uuid;
+    this.value = uuid.toString();
+  }
+
+  private static UUID parsear(String value) {
+    // UUID.fromString también acepta grupos abreviados ("1-2-3-4-5"): se exigen los 36 caracteres
+    if (value.length() != 36) {
+      throw new IllegalArgumentException("PedidoId must be a UUID: " + value);
+    }
+    return UUID.fromString(value);
   }
 
   public String getValue() {
     return value;
   }
 
+  /** El mismo id como UUID (clave primaria, partición) */
+  public UUID toUuid() {
+    return uuid;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
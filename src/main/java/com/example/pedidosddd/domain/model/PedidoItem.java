@@ -11,22 +11,35 @@ public class PedidoItem {
   private final Producto producto;
   private final int cantidad;
   private final BigDecimal precioUnitario;
+  // Subtotal calculado una sola vez: el item es inmutable
+  private final BigDecimal total;
 
   // Constructor para JPA
   protected PedidoItem() {
     this.producto = null;
     this.cantidad = 0;
     this.precioUnitario = BigDecimal.ZERO;
+    this.total = BigDecimal.ZERO;
   }
 
   public PedidoItem(Producto producto, int cantidad) {
-    if (producto == null || cantidad <= 0) {
+    this(producto, cantidad, true);
+  }
+
+  private PedidoItem(Producto producto, int cantidad, boolean validar) {
+    if (validar && (producto == null || cantidad <= 0)) {
       throw new IllegalArgumentException(
           "Producto y cantidad deben ser válidos para crear un PedidoItem.");
     }
     this.producto = producto;
     this.cantidad = cantidad;
     this.precioUnitario = producto.getPrecio(); // Captura el precio al momento de agregar
+    this.total = precioUnitario.multiply(BigDecimal.valueOf(cantidad));
+  }
+
+  /** Línea leída del repositorio, ya validada al guardarse: solo vía PedidoFactory */
+  static PedidoItem rehidratar(Producto producto, int cantidad) {
+    return new PedidoItem(producto, cantidad, false);
   }
 
   public Producto getProducto() {
@@ -42,7 +55,7 @@ public class PedidoItem {
   }
 
   public BigDecimal getTotal() {
-    return precioUnitario.multiply(BigDecimal.valueOf(cantidad));
+    return total;
   }
 
   /**
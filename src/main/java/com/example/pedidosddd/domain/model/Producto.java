@@ -16,11 +16,16 @@ public class Producto {
   private final BigDecimal precio;
 
   public Producto(ProductoId id, String nombre, BigDecimal precio) {
-    if (id == null
-        || nombre == null
-        || nombre.isBlank()
-        || precio == null
-        || precio.compareTo(BigDecimal.ZERO) <= 0) {
+    this(id, nombre, precio, true);
+  }
+
+  private Producto(ProductoId id, String nombre, BigDecimal precio, boolean validar) {
+    if (validar
+        && (id == null
+            || nombre == null
+            || nombre.isBlank()
+            || precio == null
+            || precio.compareTo(BigDecimal.ZERO) <= 0)) {
       throw new IllegalArgumentException("Invalid product data");
     }
     this.id = id;
@@ -28,6 +33,11 @@ public class Producto {
     this.precio = precio;
   }
 
+  /** Datos leídos del repositorio, ya validados al guardarse: solo vía PedidoFactory */
+  static Producto rehidratar(ProductoId id, String nombre, BigDecimal precio) {
+    return new Producto(id, nombre, precio, false);
+  }
+
   public ProductoId getId() {
     return id;
   }
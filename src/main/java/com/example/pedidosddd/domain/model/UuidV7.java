@@ -0,0 +1,43 @@
+package com.example.pedidosddd.domain.model;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generador de UUID versión 7 (RFC 9562): 48 bits de milisegundos Unix + 74 bits aleatorios
+ *
+ * <p>Los ids creados seguidos quedan ordenados en el tiempo, así las inserciones en el índice de la
+ * clave primaria caen al final del B-tree en lugar de repartirse por todas sus páginas como con v4.
+ * Dentro del mismo milisegundo los 12 bits rand_a actúan de contador para mantener el orden.
+ */
+final class UuidV7 {
+
+  private static final SecureRandom ALEATORIO = new SecureRandom();
+
+  private static long ultimoMilisegundo;
+  private static int secuencia;
+
+  private UuidV7() {}
+
+  static UUID generar() {
+    long milisegundo;
+    int contador;
+    synchronized (UuidV7.class) {
+      long ahora = System.currentTimeMillis();
+      if (ahora > ultimoMilisegundo) {
+        ultimoMilisegundo = ahora;
+        // Arranque aleatorio en la mitad baja: deja margen para el contador
+        secuencia = ALEATORIO.nextInt(0x800);
+      } else if (++secuencia > 0xFFF) {
+        // Contador agotado (o reloj hacia atrás): se toma prestado el siguiente milisegundo
+        ultimoMilisegundo++;
+        secuencia = 0;
+      }
+      milisegundo = ultimoMilisegundo;
+      contador = secuencia;
+    }
+    long masSignificativos = (milisegundo << 16) | 0x7000L | contador;
+    long menosSignificativos = (ALEATORIO.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    return new UUID(masSignificativos, menosSignificativos);
+  }
+}
@@ -2,9 +2,14 @@ package com.example.pedidosddd.infrastructure.adapters.in.cli;
 
 import com.example.pedidosddd.application.ports.in.AgregarProductoUseCase;
 import com.example.pedidosddd.application.ports.in.CrearPedidoUseCase;
+import com.example.pedidosddd.application.ports.in.RegistrarProductoUseCase;
 import com.example.pedidosddd.domain.model.PedidoId;
 import com.example.pedidosddd.domain.model.ProductoId;
+import com.example.pedidosddd.infrastructure.adapters.in.export.PedidoNdjsonExporter;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -18,6 +23,9 @@ import org.springframework.stereotype.Component;
  *
  * <p>Esto demuestra que puedo tener: - API REST - Línea de comandos - Interfaz gráfica - Tests
  * automatizados - Todos usando los MISMOS use cases
+ *
+ * <p>Modo exportación: con --exportar=ruta.ndjson vuelca todos los pedidos en NDJSON en lugar de
+ * ejecutar la demo (mismo formato que GET /api/pedidos/export)
  */
 @Component
 public class PedidoCliController implements CommandLineRunner {
@@ -25,15 +33,29 @@ public class PedidoCliController implements CommandLineRunner {
   // Los MISMOS puertos que usa el Web Controller
   private final CrearPedidoUseCase crearPedidoUseCase;
   private final AgregarProductoUseCase agregarProductoUseCase;
+  private final RegistrarProductoUseCase registrarProductoUseCase;
+  private final PedidoNdjsonExporter ndjsonExporter;
 
   public PedidoCliController(
-      CrearPedidoUseCase crearPedidoUseCase, AgregarProductoUseCase agregarProductoUseCase) {
+      CrearPedidoUseCase crearPedidoUseCase,
+      AgregarProductoUseCase agregarProductoUseCase,
+      RegistrarProductoUseCase registrarProductoUseCase,
+      PedidoNdjsonExporter ndjsonExporter) {
     this.crearPedidoUseCase = crearPedidoUseCase;
     this.agregarProductoUseCase = agregarProductoUseCase;
+    this.registrarProductoUseCase = registrarProductoUseCase;
+    this.ndjsonExporter = ndjsonExporter;
   }
 
   @Override
   public void run(String... args) throws Exception {
+    for (String arg : args) {
+      if (arg.startsWith(ARG_EXPORTAR)) {
+        exportar(Path.of(arg.substring(ARG_EXPORTAR.length())));
+        return;
+      }
+    }
+
     System.out.println("\n🔶 DEMO: Arquitectura Hexagonal - Adaptador CLI");
     System.out.println("===============================================");
 
@@ -42,13 +64,17 @@ public class PedidoCliController implements CommandLineRunner {
     PedidoId pedidoId = crearPedidoUseCase.crearNuevoPedido();
     System.out.println("   ✅ Pedido creado: " + pedidoId.getValue());
 
-    // 2. Agregar producto desde CLI
+    // 2. Dar de alta el producto en el catálogo (nombre y precio salen de aquí)
     // 🎯 ADAPTADOR CLI: Convertir String → Value Objects del dominio
-    System.out.println("\n2️⃣ Agregando producto desde CLI...");
     ProductoId productoId = new ProductoId("LAPTOP-001");
+    registrarProductoUseCase.registrarProducto(
+        new RegistrarProductoUseCase.RegistrarProductoCommand(
+            productoId, "Laptop Gaming", new BigDecimal("1200.00")));
+
+    // 3. Agregar producto desde CLI: solo se indica qué producto y cuántos
+    System.out.println("\n2️⃣ Agregando producto desde CLI...");
     AgregarProductoUseCase.AgregarProductoCommand command =
-        new AgregarProductoUseCase.AgregarProductoCommand(
-            pedidoId, productoId, "Laptop Gaming", new BigDecimal("1200.00"), 1);
+        new AgregarProductoUseCase.AgregarProductoCommand(pedidoId, productoId, 1);
 
     agregarProductoUseCase.agregarProducto(command);
     System.out.println("   ✅ Producto agregado correctamente");
@@ -58,4 +84,15 @@ public class PedidoCliController implements CommandLineRunner {
     System.out.println("   💻 CLI: Esta misma demostración");
     System.out.println("   🔧 Arquitectura Hexagonal funcionando!\n");
   }
+
+  private static final String ARG_EXPORTAR = "--exportar=";
+
+  /** Modo exportación: mismo use case que el endpoint web, destino un fichero */
+  private void exportar(Path destino) throws Exception {
+    System.out.println("\n📦 Exportando pedidos a " + destino + " ...");
+    try (OutputStream salida = Files.newOutputStream(destino)) {
+      long exportados = ndjsonExporter.exportar(salida);
+      System.out.println("   ✅ " + exportados + " pedidos exportados");
+    }
+  }
 }
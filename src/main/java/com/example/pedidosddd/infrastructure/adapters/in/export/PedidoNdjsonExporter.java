@@ -0,0 +1,98 @@
+package com.example.pedidosddd.infrastructure.adapters.in.export;
+
+import com.example.pedidosddd.application.ports.in.ExportarPedidosUseCase;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * ADAPTADOR DE ENTRADA (compartido) - Exportación NDJSON
+ *
+ * <p>Un pedido por línea JSON, escrito directamente en el OutputStream a medida que el use case lo
+ * entrega: memoria constante sin importar cuántos pedidos haya. Lo usan el endpoint web y el modo
+ * CLI, así ambos producen exactamente el mismo formato.
+ *
+ * <p>Los campos siguen a PedidoEntity/PedidoItemEntity (el pedido llega ya convertido por
+ * PedidoMapper).
+ */
+@Component
+public class PedidoNdjsonExporter {
+
+  public static final String MEDIA_TYPE = "application/x-ndjson";
+
+  private final ExportarPedidosUseCase exportarPedidosUseCase;
+  private final ObjectWriter writer;
+
+  public PedidoNdjsonExporter(
+      ExportarPedidosUseCase exportarPedidosUseCase, ObjectMapper objectMapper) {
+    this.exportarPedidosUseCase = exportarPedidosUseCase;
+    this.writer = objectMapper.writerFor(PedidoNdjson.class);
+  }
+
+  /** Escribe todos los pedidos en la salida (no la cierra); devuelve cuántos escribió */
+  public long exportar(OutputStream salida) throws IOException {
+    BufferedOutputStream buffer = new BufferedOutputStream(salida, 64 * 1024);
+    try {
+      long exportados =
+          exportarPedidosUseCase.exportarPedidos(pedido -> escribirLinea(buffer, pedido));
+      buffer.flush();
+      return exportados;
+    } catch (UncheckedIOException e) {
+      // p. ej. el cliente HTTP cerró la conexión
+      throw e.getCause();
+    }
+  }
+
+  private void escribirLinea(OutputStream salida, Pedido pedido) {
+    try {
+      salida.write(writer.writeValueAsBytes(PedidoNdjson.de(pedido)));
+      salida.write('\n');
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("No se pudo serializar el pedido " + pedido.getId(), e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Una línea del fichero NDJSON */
+  public record PedidoNdjson(
+      String id,
+      String estado,
+      LocalDateTime fechaCreacion,
+      LocalDateTime fechaActualizacion,
+      BigDecimal total,
+      Long version,
+      List<ItemNdjson> items) {
+
+    static PedidoNdjson de(Pedido pedido) {
+      return new PedidoNdjson(
+          pedido.getId().getValue(),
+          pedido.getEstado().name(),
+          pedido.getFechaCreacion(),
+          pedido.getFechaActualizacion(),
+          pedido.calcularTotal(),
+          pedido.getVersion(),
+          pedido.getItems().stream()
+              .map(
+                  item ->
+                      new ItemNdjson(
+                          item.getProducto().getId().getValue(),
+                          item.getProducto().getNombre(),
+                          item.getCantidad(),
+                          item.getPrecioUnitario()))
+              .toList());
+    }
+  }
+
+  public record ItemNdjson(
+      String productoId, String nombreProducto, int cantidad, BigDecimal precioUnitario) {}
+}
@@ -1,12 +1,38 @@
 package com.example.pedidosddd.infrastructure.adapters.in.web;
 
+import com.example.pedidosddd.application.ports.in.AgregarProductoAsyncUseCase;
 import com.example.pedidosddd.application.ports.in.AgregarProductoUseCase;
+import com.example.pedidosddd.application.ports.in.AgregarProductosEnLoteUseCase;
+import com.example.pedidosddd.application.ports.in.CompletarPedidoUseCase;
+import com.example.pedidosddd.application.ports.in.ConsultarPedidoAsyncUseCase;
 import com.example.pedidosddd.application.ports.in.ConsultarPedidoUseCase;
-import com.example.pedidosddd.application.ports.in.CrearPedidoUseCase;
+import com.example.pedidosddd.application.ports.in.ConsultarResumenPedidoUseCase;
+import com.example.pedidosddd.application.ports.in.CrearPedidoAsyncUseCase;
+import com.example.pedidosddd.application.ports.in.ListarPedidosUseCase;
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
+import com.example.pedidosddd.domain.model.EstadoPedido;
 import com.example.pedidosddd.domain.model.Pedido;
 import com.example.pedidosddd.domain.model.PedidoId;
 import com.example.pedidosddd.domain.model.ProductoId;
+import com.example.pedidosddd.infrastructure.adapters.in.export.PedidoNdjsonExporter;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,33 +44,62 @@ import org.springframework.web.bind.annotation.*;
  *
  * <p>En Hexagonal: Controller -> Puerto de Entrada -> Use Case -> Puerto de Salida -> Adaptador de
  * Salida
+ *
+ * <p>Crear, agregar producto y consultar usan los puertos asíncronos: devuelven CompletableFuture y
+ * Spring MVC libera el hilo de Tomcat hasta que el use case termina. Si el ejecutor de use cases
+ * está lleno se responde 503 con Retry-After en lugar de encolar sin límite.
  */
 @RestController
 @RequestMapping("/api/pedidos")
 public class PedidoWebController {
 
   // Solo conoce los PUERTOS DE ENTRADA, no las implementaciones
-  private final CrearPedidoUseCase crearPedidoUseCase;
-  private final AgregarProductoUseCase agregarProductoUseCase;
+  private final CrearPedidoAsyncUseCase crearPedidoUseCase;
+  private final AgregarProductoAsyncUseCase agregarProductoUseCase;
+  private final AgregarProductosEnLoteUseCase agregarProductosEnLoteUseCase;
+  private final CompletarPedidoUseCase completarPedidoUseCase;
   private final ConsultarPedidoUseCase consultarPedidoUseCase;
+  private final ConsultarPedidoAsyncUseCase consultarPedidoAsyncUseCase;
+  private final ListarPedidosUseCase listarPedidosUseCase;
+  private final PedidoNdjsonExporter ndjsonExporter;
+  private final ObjectMapper objectMapper;
 
   public PedidoWebController(
-      CrearPedidoUseCase crearPedidoUseCase,
-      AgregarProductoUseCase agregarProductoUseCase,
-      ConsultarPedidoUseCase consultarPedidoUseCase) {
+      CrearPedidoAsyncUseCase crearPedidoUseCase,
+      AgregarProductoAsyncUseCase agregarProductoUseCase,
+      AgregarProductosEnLoteUseCase agregarProductosEnLoteUseCase,
+      CompletarPedidoUseCase completarPedidoUseCase,
+      ConsultarPedidoUseCase consultarPedidoUseCase,
+      ConsultarPedidoAsyncUseCase consultarPedidoAsyncUseCase,
+      ListarPedidosUseCase listarPedidosUseCase,
+      PedidoNdjsonExporter ndjsonExporter,
+      ObjectMapper objectMapper) {
     this.crearPedidoUseCase = crearPedidoUseCase;
     this.agregarProductoUseCase = agregarProductoUseCase;
+    this.agregarProductosEnLoteUseCase = agregarProductosEnLoteUseCase;
+    this.completarPedidoUseCase = completarPedidoUseCase;
     this.consultarPedidoUseCase = consultarPedidoUseCase;
+    this.consultarPedidoAsyncUseCase = consultarPedidoAsyncUseCase;
+    this.listarPedidosUseCase = listarPedidosUseCase;
+    this.ndjsonExporter = ndjsonExporter;
+    this.objectMapper = objectMapper;
   }
 
   /** Endpoint: Crear un nuevo pedido HTTP POST /api/pedidos */
   @PostMapping
-  public ResponseEntity<CrearPedidoResponse> crearPedido() {
+  public CompletableFuture<ResponseEntity<CrearPedidoResponse>> crearPedido() {
     // Delega al Use Case
-    PedidoId pedidoId = crearPedidoUseCase.crearNuevoPedido();
-
-    // Traduce la respuesta del dominio a HTTP
-    return ResponseEntity.ok(new CrearPedidoResponse(pedidoId.getValue()));
+    return crearPedidoUseCase
+        .crearNuevoPedidoAsync()
+        // Traduce la respuesta del dominio a HTTP
+        .thenApply(pedidoId -> ResponseEntity.ok(new CrearPedidoResponse(pedidoId.getValue())))
+        .exceptionally(
+            e -> {
+              if (causa(e) instanceof RejectedExecutionException) {
+                return servicioSaturado();
+              }
+              throw propagar(e);
+            });
   }
 
   /**
@@ -52,80 +107,361 @@ public class PedidoWebController {
    * ADAPTADOR: Convierte String (HTTP) → PedidoId (Dominio)
    */
   @PostMapping("/{pedidoId}/productos")
-  public ResponseEntity<String> agregarProducto(
+  public CompletableFuture<ResponseEntity<String>> agregarProducto(
       @PathVariable String pedidoId, @RequestBody AgregarProductoRequest request) {
 
+    AgregarProductoUseCase.AgregarProductoCommand command;
     try {
       // 1. ADAPTADOR: Convertir String HTTP → Value Object del dominio
       PedidoId id = new PedidoId(pedidoId);
 
       // 2. ADAPTADOR: Crear Command con objetos del dominio
       ProductoId productoId = new ProductoId(request.productoId());
-      AgregarProductoUseCase.AgregarProductoCommand command =
+      command =
           new AgregarProductoUseCase.AgregarProductoCommand(
               id, // ← 🎯 PedidoId (Value Object), no String
               productoId, // ← 🎯 ProductoId (Value Object), no String
-              request.nombreProducto(),
-              request.precio(),
               request.cantidad());
+    } catch (IllegalArgumentException e) {
+      // ID inválido (adaptador) o validación de command
+      return CompletableFuture.completedFuture(
+          ResponseEntity.badRequest().body("Error: " + e.getMessage()));
+    }
+
+    // 3. DELEGAR al Use Case
+    return agregarProductoUseCase
+        .agregarProductoAsync(command)
+        .thenApply(sinValor -> ResponseEntity.ok("Producto agregado correctamente"))
+        .exceptionally(
+            e -> {
+              Throwable causa = causa(e);
+              if (causa instanceof IllegalArgumentException) {
+                // Pedido o producto no encontrado, o validación del dominio
+                return ResponseEntity.badRequest().body("Error: " + causa.getMessage());
+              }
+              if (causa instanceof ConflictoDeConcurrenciaException) {
+                // El use case ya reintentó: hay demasiada contención sobre el mismo pedido
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error: " + causa.getMessage());
+              }
+              if (causa instanceof RejectedExecutionException) {
+                return servicioSaturado();
+              }
+              throw propagar(e);
+            });
+  }
+
+  /**
+   * Endpoint: Agregar varios productos en una sola petición HTTP POST
+   * /api/pedidos/{pedidoId}/productos/lote 🎯 ADAPTADOR: Las líneas que no se pueden convertir a
+   * Command se reportan como error de su línea y el resto se delega al Use Case en un solo lote
+   *
+   * <p>Un lote sin líneas es una petición mal formada (400 con mensaje), no un lote sin errores.
+   */
+  @PostMapping("/{pedidoId}/productos/lote")
+  public ResponseEntity<?> agregarProductosEnLote(
+      @PathVariable String pedidoId, @RequestBody List<AgregarProductoRequest> request) {
+
+    PedidoId id;
+    try {
+      id = new PedidoId(pedidoId);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+    if (request == null || request.isEmpty()) {
+      return ResponseEntity.badRequest().body("Error: El lote no tiene productos");
+    }
 
-      // 3. DELEGAR al Use Case
-      agregarProductoUseCase.agregarProducto(command);
+    // 1. ADAPTADOR: Convertir cada línea HTTP → Command, recordando su posición original
+    List<ErrorLineaResponse> errores = new ArrayList<>();
+    List<AgregarProductoUseCase.AgregarProductoCommand> lineas = new ArrayList<>();
+    List<Integer> posiciones = new ArrayList<>();
+    for (int i = 0; i < request.size(); i++) {
+      AgregarProductoRequest linea = request.get(i);
+      if (linea == null) {
+        // null en el array JSON
+        errores.add(new ErrorLineaResponse(i, "Línea vacía"));
+        continue;
+      }
+      try {
+        lineas.add(
+            new AgregarProductoUseCase.AgregarProductoCommand(
+                id, new ProductoId(linea.productoId()), linea.cantidad()));
+        posiciones.add(i);
+      } catch (IllegalArgumentException e) {
+        errores.add(new ErrorLineaResponse(i, e.getMessage()));
+      }
+    }
+    if (lineas.isEmpty()) {
+      return ResponseEntity.badRequest().body(new AgregarProductosEnLoteResponse(0, errores));
+    }
 
-      return ResponseEntity.ok("Producto agregado correctamente");
+    // 2. DELEGAR al Use Case: una carga y un save para todo el lote
+    AgregarProductosEnLoteUseCase.ResultadoLote resultado;
+    try {
+      resultado =
+          agregarProductosEnLoteUseCase.agregarProductos(
+              new AgregarProductosEnLoteUseCase.AgregarProductosEnLoteCommand(id, lineas));
     } catch (IllegalArgumentException e) {
-      // Puede ser por ID inválido (adaptador) o validación de command (dominio)
-      return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+      // Pedido no encontrado
+      return ResponseEntity.notFound().build();
+    } catch (ConflictoDeConcurrenciaException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    // 3. Traducir los índices del lote a las posiciones de la petición
+    for (AgregarProductosEnLoteUseCase.ErrorLinea error : resultado.errores()) {
+      errores.add(new ErrorLineaResponse(posiciones.get(error.linea()), error.mensaje()));
+    }
+    errores.sort(Comparator.comparingInt(ErrorLineaResponse::linea));
+
+    AgregarProductosEnLoteResponse response =
+        new AgregarProductosEnLoteResponse(resultado.lineasAgregadas(), errores);
+    return resultado.lineasAgregadas() > 0
+        ? ResponseEntity.ok(response)
+        : ResponseEntity.badRequest().body(response);
+  }
+
+  /**
+   * Endpoint: Completar un pedido HTTP POST /api/pedidos/{pedidoId}/completar 🎯 Con escritura
+   * diferida activa, responder 200 significa que el pedido ya está guardado en el almacén
+   */
+  @PostMapping("/{pedidoId}/completar")
+  public ResponseEntity<String> completarPedido(@PathVariable String pedidoId) {
+    try {
+      completarPedidoUseCase.completarPedido(new PedidoId(pedidoId));
+      return ResponseEntity.ok("Pedido completado");
+    } catch (IllegalArgumentException e) {
+      // ID inválido o pedido no encontrado
+      return ResponseEntity.notFound().build();
+    } catch (IllegalStateException | ConflictoDeConcurrenciaException e) {
+      // Ya no está PENDIENTE, está vacío, o hay demasiada contención
+      return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
     }
   }
 
   /**
    * Endpoint: Consultar un pedido por ID HTTP GET /api/pedidos/{pedidoId} 🎯 ADAPTADOR: Convierte
    * String (HTTP) → PedidoId (Dominio)
+   *
+   * <p>CQRS: se sirve desde la proyección pedido_resumen (productos ya renderizados); solo si el
+   * pedido no tiene proyección se carga el agregado completo.
    */
   @GetMapping("/{pedidoId}")
-  public ResponseEntity<ConsultarPedidoResponse> consultarPedido(@PathVariable String pedidoId) {
+  public CompletableFuture<ResponseEntity<ResumenPedidoResponse>> consultarPedido(
+      @PathVariable String pedidoId) {
+    // 1. ADAPTADOR: Convertir String HTTP → Value Object del dominio
+    PedidoId id;
+    try {
+      id = new PedidoId(pedidoId);
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+    }
+
+    // 2. DELEGAR al Use Case de lectura
+    return consultarPedidoAsyncUseCase
+        .consultarResumenAsync(id)
+        .thenCompose(
+            resumen ->
+                resumen.isPresent()
+                    ? CompletableFuture.completedFuture(toResumenResponse(resumen.get()))
+                    // 3. Sin proyección (almacén en fichero o pedido anterior a ella): agregado
+                    : consultarPedidoAsyncUseCase
+                        .consultarPedidoPorIdAsync(id)
+                        .thenApply(this::toResumenResponse))
+        .thenApply(ResponseEntity::ok)
+        .exceptionally(
+            e -> {
+              Throwable causa = causa(e);
+              if (causa instanceof IllegalArgumentException) {
+                // Pedido no encontrado
+                return ResponseEntity.notFound().build();
+              }
+              if (causa instanceof RejectedExecutionException) {
+                return servicioSaturado();
+              }
+              throw propagar(e);
+            });
+  }
+
+  /**
+   * Endpoint: Estado de un pedido HTTP GET /api/pedidos/{pedidoId}/estado - solo lee la cabecera
+   * del pedido, nunca sus items
+   */
+  @GetMapping("/{pedidoId}/estado")
+  public ResponseEntity<EstadoPedidoResponse> consultarEstado(@PathVariable String pedidoId) {
     try {
-      // 1. ADAPTADOR: Convertir String HTTP → Value Object del dominio
       PedidoId id = new PedidoId(pedidoId);
+      EstadoPedido estado = consultarPedidoUseCase.consultarEstado(id);
+      return ResponseEntity.ok(new EstadoPedidoResponse(id.getValue(), estado.name()));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.notFound().build();
+    }
+  }
 
-      // 2. DELEGAR al Use Case con objeto del dominio
-      Pedido pedido = consultarPedidoUseCase.consultarPedidoPorId(id);
-
-      // Traduce la respuesta del dominio a HTTP
-      ConsultarPedidoResponse response =
-          new ConsultarPedidoResponse(
-              pedido.getId().getValue(),
-              pedido.getEstado().name(),
-              pedido.calcularTotal(),
-              pedido.getItems().stream()
-                  .map(
-                      item ->
-                          new ProductoResponse(
-                              item.getProducto().getId().getValue(), // ← ADAPTADOR: ProductoId → String
-                              item.getProducto().getNombre(),
-                              item.getProducto().getPrecio(),
-                              item.getCantidad()))
-                  .toList());
-
-      return ResponseEntity.ok(response);
+  /** Endpoint: ¿Existe el pedido? HTTP HEAD /api/pedidos/{pedidoId} - 200 o 404, sin cuerpo */
+  @RequestMapping(value = "/{pedidoId}", method = RequestMethod.HEAD)
+  public ResponseEntity<Void> existePedido(@PathVariable String pedidoId) {
+    try {
+      return consultarPedidoUseCase.existePedido(new PedidoId(pedidoId))
+          ? ResponseEntity.ok().build()
+          : ResponseEntity.notFound().build();
     } catch (IllegalArgumentException e) {
-      // Puede ser por ID inválido (adaptador) o pedido no encontrado (dominio)
       return ResponseEntity.notFound().build();
     }
   }
 
+  /**
+   * Endpoint: Listar pedidos paginados HTTP GET /api/pedidos?estado=&tamano=&cursor= 🎯 ADAPTADOR:
+   * el cursor es opaco para el cliente (Base64 de fecha|id); se devuelve en siguienteCursor y se
+   * reenvía tal cual para pedir la página siguiente
+   */
+  @GetMapping
+  public ResponseEntity<ListarPedidosResponse> listarPedidos(
+      @RequestParam(required = false) String estado,
+      @RequestParam(defaultValue = "50") int tamano,
+      @RequestParam(required = false) String cursor) {
+    try {
+      // 1. ADAPTADOR: Convertir parámetros HTTP → Query con objetos del dominio
+      ListarPedidosUseCase.ListarPedidosQuery query =
+          new ListarPedidosUseCase.ListarPedidosQuery(
+              estado != null ? EstadoPedido.valueOf(estado.toUpperCase()) : null,
+              cursor != null ? decodificarCursor(cursor) : null,
+              tamano);
+
+      // 2. DELEGAR al Use Case
+      ListarPedidosUseCase.PaginaPedidos pagina = listarPedidosUseCase.listarPedidos(query);
+
+      // 3. Traducir la respuesta del dominio a HTTP
+      return ResponseEntity.ok(
+          new ListarPedidosResponse(
+              pagina.pedidos().stream().map(this::toResponse).toList(),
+              pagina.siguiente() != null ? codificarCursor(pagina.siguiente()) : null));
+    } catch (IllegalArgumentException e) {
+      // Estado desconocido, tamaño fuera de rango o cursor mal formado
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Endpoint: Exportar todos los pedidos HTTP GET /api/pedidos/export (application/x-ndjson)
+   *
+   * <p>Escribe directamente en el OutputStream de la respuesta mientras se recorre la base de
+   * datos: sin buffer intermedio ni límite de tiempo de petición asíncrona.
+   */
+  @GetMapping(value = "/export", produces = PedidoNdjsonExporter.MEDIA_TYPE)
+  public void exportarPedidos(HttpServletResponse response) throws IOException {
+    response.setContentType(PedidoNdjsonExporter.MEDIA_TYPE);
+    response.setCharacterEncoding("UTF-8");
+    ndjsonExporter.exportar(response.getOutputStream());
+  }
+
+  private ConsultarPedidoResponse toResponse(Pedido pedido) {
+    return new ConsultarPedidoResponse(
+        pedido.getId().getValue(),
+        pedido.getEstado().name(),
+        pedido.calcularTotal(),
+        pedido.getItems().stream()
+            .map(
+                item ->
+                    new ProductoResponse(
+                        item.getProducto().getId().getValue(), // ← ADAPTADOR: ProductoId → String
+                        item.getProducto().getNombre(),
+                        item.getProducto().getPrecio(),
+                        item.getCantidad()))
+            .toList());
+  }
+
+  private ResumenPedidoResponse toResumenResponse(
+      ConsultarResumenPedidoUseCase.ResumenPedido resumen) {
+    return new ResumenPedidoResponse(
+        resumen.pedidoId().getValue(),
+        resumen.estado().name(),
+        resumen.total(),
+        resumen.cantidadItems(),
+        resumen.productosJson());
+  }
+
+  private ResumenPedidoResponse toResumenResponse(Pedido pedido) {
+    ConsultarPedidoResponse response = toResponse(pedido);
+    try {
+      return new ResumenPedidoResponse(
+          response.pedidoId(),
+          response.estado(),
+          response.total(),
+          response.productos().size(),
+          objectMapper.writeValueAsString(response.productos()));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("No se pudo renderizar el pedido " + response.pedidoId(), e);
+    }
+  }
+
+  // Backpressure: el ejecutor de use cases está lleno; el cliente debe reintentar en un momento
+  private static <T> ResponseEntity<T> servicioSaturado() {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .build();
+  }
+
+  // Los futuros encadenados envuelven el error original en CompletionException
+  private static Throwable causa(Throwable e) {
+    return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+  }
+
+  private static CompletionException propagar(Throwable e) {
+    return e instanceof CompletionException completion ? completion : new CompletionException(e);
+  }
+
+  private String codificarCursor(ListarPedidosUseCase.Cursor cursor) {
+    String valor = cursor.fechaActualizacion() + "|" + cursor.pedidoId().getValue();
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private ListarPedidosUseCase.Cursor decodificarCursor(String cursor) {
+    String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    int separador = valor.indexOf('|');
+    if (separador < 0) {
+      throw new IllegalArgumentException("Cursor inválido");
+    }
+    try {
+      return new ListarPedidosUseCase.Cursor(
+          LocalDateTime.parse(valor.substring(0, separador)),
+          new PedidoId(valor.substring(separador + 1)));
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Cursor inválido", e);
+    }
+  }
+
   // DTOs para la capa web (adaptador)
   public record CrearPedidoResponse(String pedidoId) {}
 
-  public record AgregarProductoRequest(
-      String productoId, String nombreProducto, BigDecimal precio, int cantidad) {}
+  /** Nombre y precio los pone el catálogo, no el cliente */
+  public record AgregarProductoRequest(String productoId, int cantidad) {}
+
+  public record AgregarProductosEnLoteResponse(
+      int productosAgregados, List<ErrorLineaResponse> errores) {}
+
+  public record ErrorLineaResponse(int linea, String mensaje) {}
 
   public record ConsultarPedidoResponse(
+      String pedidoId, String estado, BigDecimal total, List<ProductoResponse> productos) {}
+
+  /**
+   * Mismos campos que ConsultarPedidoResponse más cantidadItems; productos es JSON ya renderizado
+   */
+  public record ResumenPedidoResponse(
       String pedidoId,
       String estado,
       BigDecimal total,
-      java.util.List<ProductoResponse> productos) {}
+      int cantidadItems,
+      @JsonRawValue String productos) {}
+
+  public record EstadoPedidoResponse(String pedidoId, String estado) {}
+
+  public record ListarPedidosResponse(
+      List<ConsultarPedidoResponse> pedidos, String siguienteCursor) {}
 
   public record ProductoResponse(
       String productoId, String nombre, BigDecimal precio, int cantidad) {}
@@ -0,0 +1,52 @@
+package com.example.pedidosddd.infrastructure.adapters.in.web;
+
+import com.example.pedidosddd.application.ports.in.RegistrarProductoUseCase;
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
+import com.example.pedidosddd.domain.model.ProductoId;
+import java.math.BigDecimal;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * ADAPTADOR DE ENTRADA WEB - Catálogo de productos
+ *
+ * <p>Alta y cambio de precio de productos. Los pedidos solo envían productoId y cantidad: el nombre
+ * y el precio de cada línea se toman de aquí.
+ */
+@RestController
+@RequestMapping("/api/productos")
+public class ProductoWebController {
+
+  private final RegistrarProductoUseCase registrarProductoUseCase;
+
+  public ProductoWebController(RegistrarProductoUseCase registrarProductoUseCase) {
+    this.registrarProductoUseCase = registrarProductoUseCase;
+  }
+
+  /**
+   * Endpoint: Alta o actualización de un producto HTTP PUT /api/productos/{productoId} 🎯
+   * ADAPTADOR: Convierte String (HTTP) → ProductoId (Dominio)
+   */
+  @PutMapping("/{productoId}")
+  public ResponseEntity<?> registrarProducto(
+      @PathVariable String productoId, @RequestBody RegistrarProductoRequest request) {
+    try {
+      long version =
+          registrarProductoUseCase.registrarProducto(
+              new RegistrarProductoUseCase.RegistrarProductoCommand(
+                  new ProductoId(productoId), request.nombre(), request.precio()));
+      return ResponseEntity.ok(new RegistrarProductoResponse(productoId, version));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+    } catch (ConflictoDeConcurrenciaException e) {
+      // El use case ya reintentó: otra petición sigue cambiando el mismo producto
+      return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+    }
+  }
+
+  // DTOs para la capa web (adaptador)
+  public record RegistrarProductoRequest(String nombre, BigDecimal precio) {}
+
+  public record RegistrarProductoResponse(String productoId, long version) {}
+}
@@ -0,0 +1,110 @@
+package com.example.pedidosddd.infrastructure.adapters.out.archivo;
+
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.InternadoProductos;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.PedidoBinarioCodec;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ARCHIVO - Pedidos que ya no pueden cambiar, fuera de las tablas calientes
+ *
+ * <p>Cada pedido se guarda con PedidoBinarioCodec autocontenido (sin diccionario: el registro tiene
+ * que poder leerse en cualquier proceso) comprimido con Deflate. Se escribe poco y se lee menos,
+ * así que se usa la compresión máxima.
+ *
+ * <p>Lo escribe ArchivadorPedidos dentro de su transacción y lo lee JpaPedidoRepositoryAdapter
+ * cuando un pedido no está en la tabla pedidos. Al leer, los productos pasan por el mismo
+ * InternadoProductos que el resto de cargas.
+ */
+@Component
+public class ArchivoPedidos {
+
+  private final JpaPedidoArchivoRepository archivoRepository;
+  private final EntityManager entityManager;
+  private final PedidoBinarioCodec codec;
+
+  public ArchivoPedidos(
+      JpaPedidoArchivoRepository archivoRepository,
+      EntityManager entityManager,
+      InternadoProductos internado) {
+    this.archivoRepository = archivoRepository;
+    this.entityManager = entityManager;
+    this.codec = new PedidoBinarioCodec(null, internado);
+  }
+
+  /** Inserta el pedido en el archivo; exige la transacción que lo borra de pedidos */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void archivar(Pedido pedido, LocalDateTime archivadoEn) {
+    if (pedido.getEstado() == EstadoPedido.PENDIENTE) {
+      throw new IllegalStateException(
+          "Solo se archivan pedidos que ya no pueden cambiar: " + pedido.getId().getValue());
+    }
+    // persist y no repository.save, que con id asignado haría merge y otro SELECT
+    entityManager.persist(
+        new PedidoArchivadoEntity(
+            pedido.getId().toUuid(),
+            pedido.getEstado().name(),
+            pedido.getFechaActualizacion(),
+            archivadoEn,
+            comprimir(codec.codificar(pedido))));
+  }
+
+  public Optional<Pedido> buscar(PedidoId pedidoId) {
+    return archivoRepository
+        .findById(pedidoId.toUuid())
+        .map(archivado -> codec.decodificar(ByteBuffer.wrap(descomprimir(archivado.getDatos()))));
+  }
+
+  public boolean existe(PedidoId pedidoId) {
+    return archivoRepository.existsById(pedidoId.toUuid());
+  }
+
+  public Optional<EstadoPedido> buscarEstado(PedidoId pedidoId) {
+    return archivoRepository.findEstadoById(pedidoId.toUuid()).map(EstadoPedido::valueOf);
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void eliminar(PedidoId pedidoId) {
+    entityManager
+        .createQuery("DELETE FROM PedidoArchivadoEntity a WHERE a.pedidoId = :id")
+        .setParameter("id", pedidoId.toUuid())
+        .executeUpdate();
+  }
+
+  private static byte[] comprimir(byte[] datos) {
+    ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 2 + 16);
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    try (DeflaterOutputStream comprimido = new DeflaterOutputStream(salida, deflater)) {
+      comprimido.write(datos);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      // El stream no libera un Deflater que no creó él
+      deflater.end();
+    }
+    return salida.toByteArray();
+  }
+
+  private static byte[] descomprimir(byte[] datos) {
+    try (InflaterInputStream entrada = new InflaterInputStream(new ByteArrayInputStream(datos))) {
+      return entrada.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Registro de archivo corrupto", e);
+    }
+  }
+}
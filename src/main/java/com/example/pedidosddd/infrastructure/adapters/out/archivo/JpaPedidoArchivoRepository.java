@@ -0,0 +1,15 @@
+package com.example.pedidosddd.infrastructure.adapters.out.archivo;
+
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/** REPOSITORIO JPA - Tabla pedidos_archivo */
+public interface JpaPedidoArchivoRepository extends JpaRepository<PedidoArchivadoEntity, UUID> {
+
+  /** Solo la columna estado: sin leer ni descomprimir datos */
+  @Query("SELECT a.estado FROM PedidoArchivadoEntity a WHERE a.pedidoId = :id")
+  Optional<String> findEstadoById(@Param("id") UUID id);
+}
@@ -0,0 +1,80 @@
+package com.example.pedidosddd.infrastructure.adapters.out.archivo;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * ENTIDAD JPA - Pedido COMPLETADO/CANCELADO sacado de pedidos/pedido_items (tabla pedidos_archivo)
+ *
+ * <p>Una fila por pedido: el agregado entero comprimido en datos, y al lado solo lo que se consulta
+ * sin descomprimir (estado) y la clave de rango. En PostgreSQL la tabla puede estar particionada
+ * por mes de fecha_actualizacion (db/postgresql/archivo-pedidos-particionado.sql).
+ *
+ * <p>Particionada, la clave primaria real es (pedido_id, fecha_actualizacion): PostgreSQL exige que
+ * incluya la columna de partición. Para JPA el @Id sigue siendo solo pedido_id, que es único
+ * igualmente: un pedido se archiva una vez, ya terminado, y su fecha_actualizacion no cambia.
+ * validate no compara claves primarias, así que la diferencia no impide arrancar.
+ */
+@Entity
+@Table(
+    name = "pedidos_archivo",
+    indexes =
+        @Index(name = "idx_pedidos_archivo_actualizacion", columnList = "fecha_actualizacion"))
+public class PedidoArchivadoEntity {
+
+  @Id
+  @Column(name = "pedido_id")
+  private UUID pedidoId;
+
+  // Nombre del EstadoPedido del dominio
+  @Column(nullable = false, length = 20)
+  private String estado;
+
+  @Column(name = "fecha_actualizacion", nullable = false)
+  private LocalDateTime fechaActualizacion;
+
+  @Column(name = "archivado_en", nullable = false)
+  private LocalDateTime archivadoEn;
+
+  // PedidoBinarioCodec autocontenido + Deflate; bytea en PostgreSQL
+  @Column(nullable = false, length = 16 * 1024 * 1024)
+  private byte[] datos;
+
+  // Constructor para JPA
+  protected PedidoArchivadoEntity() {}
+
+  public PedidoArchivadoEntity(
+      UUID pedidoId,
+      String estado,
+      LocalDateTime fechaActualizacion,
+      LocalDateTime archivadoEn,
+      byte[] datos) {
+    this.pedidoId = pedidoId;
+    this.estado = estado;
+    this.fechaActualizacion = fechaActualizacion;
+    this.archivadoEn = archivadoEn;
+    this.datos = datos;
+  }
+
+  // Getters
+  public UUID getPedidoId() {
+    return pedidoId;
+  }
+
+  public String getEstado() {
+    return estado;
+  }
+
+  public LocalDateTime getFechaActualizacion() {
+    return fechaActualizacion;
+  }
+
+  public LocalDateTime getArchivadoEn() {
+    return archivadoEn;
+  }
+
+  public byte[] getDatos() {
+    return datos;
+  }
+}
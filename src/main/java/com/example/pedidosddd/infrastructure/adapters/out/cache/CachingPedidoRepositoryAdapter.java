@@ -0,0 +1,150 @@
+package com.example.pedidosddd.infrastructure.adapters.out.cache;
+
+import com.example.pedidosddd.application.ports.out.PedidoRepositoryPort;
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.PedidoBinarioCodec;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * ADAPTADOR DE SALIDA - Decorador con caché read-through
+ *
+ * <p>¿Qué hace? Envuelve otro PedidoRepositoryPort y guarda en memoria los pedidos leídos o
+ * guardados, codificados con PedidoBinarioCodec (con diccionario de nombres de producto): un byte[]
+ * compacto en lugar de un grafo de objetos. Cada lectura decodifica un Pedido nuevo, así quien lo
+ * modifique no altera lo cacheado.
+ *
+ * <p>La caché está acotada por tamaño y por TTL. Los pedidos COMPLETADO/CANCELADO ya no cambian,
+ * así que viven mucho más que los PENDIENTE.
+ *
+ * <p>En Hexagonal: El use case sigue viendo el mismo puerto, no sabe que hay una caché delante
+ */
+public class CachingPedidoRepositoryAdapter implements PedidoRepositoryPort {
+
+  private final PedidoRepositoryPort delegate;
+  private final PedidoBinarioCodec codec;
+  private final Cache<PedidoId, byte[]> cache;
+
+  public CachingPedidoRepositoryAdapter(
+      PedidoRepositoryPort delegate,
+      PedidoBinarioCodec codec,
+      long maxPedidos,
+      Duration ttlPendiente,
+      Duration ttlFinalizado,
+      MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.codec = codec;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maxPedidos)
+            .expireAfter(new ExpiracionPorEstado(codec, ttlPendiente, ttlFinalizado))
+            .recordStats()
+            .build();
+    // cache.gets{result=hit|miss}, cache.evictions, cache.size... vía Actuator /metrics
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "pedidos");
+  }
+
+  /**
+   * Read-through: solo va al repositorio real si el pedido no está en caché
+   *
+   * <p>La carga se hace fuera de la caché (no con cache.get(key, loader)): el loader se ejecuta
+   * dentro de un compute de ConcurrentHashMap, que es synchronized, y una llamada JDBC ahí dentro
+   * bloquearía el carrier thread de un hilo virtual.
+   */
+  @Override
+  public Optional<Pedido> findById(PedidoId pedidoId) {
+    byte[] cacheado = cache.getIfPresent(pedidoId);
+    if (cacheado != null) {
+      return Optional.of(codec.decodificar(ByteBuffer.wrap(cacheado)));
+    }
+    Optional<Pedido> encontrado = delegate.findById(pedidoId);
+    // Un pedido inexistente no se cachea
+    encontrado.ifPresent(pedido -> cache.asMap().putIfAbsent(pedidoId, codec.codificar(pedido)));
+    return encontrado;
+  }
+
+  /** Un acierto de caché basta; si no, se pregunta al almacén sin poblar la caché */
+  @Override
+  public boolean existsById(PedidoId pedidoId) {
+    return cache.getIfPresent(pedidoId) != null || delegate.existsById(pedidoId);
+  }
+
+  /** Con el pedido en caché el estado se lee de la cabecera del registro, sin decodificarlo */
+  @Override
+  public Optional<EstadoPedido> findEstadoById(PedidoId pedidoId) {
+    byte[] cacheado = cache.getIfPresent(pedidoId);
+    if (cacheado != null) {
+      return Optional.of(codec.leerEstado(ByteBuffer.wrap(cacheado)));
+    }
+    return delegate.findEstadoById(pedidoId);
+  }
+
+  /** Write-through: se cachea el estado que devuelve el repositorio real */
+  @Override
+  public Pedido save(Pedido pedido) {
+    Pedido guardado;
+    try {
+      guardado = delegate.save(pedido);
+    } catch (RuntimeException e) {
+      // Conflicto de versión u otro fallo: el reintento debe releer del almacén, no de la caché
+      cache.invalidate(pedido.getId());
+      throw e;
+    }
+    cache.put(guardado.getId(), codec.codificar(guardado));
+    return guardado;
+  }
+
+  @Override
+  public void deleteById(PedidoId pedidoId) {
+    try {
+      delegate.deleteById(pedidoId);
+    } finally {
+      cache.invalidate(pedidoId);
+    }
+  }
+
+  /** TTL corto para pedidos PENDIENTE, largo para los que ya no pueden cambiar */
+  private static final class ExpiracionPorEstado implements Expiry<PedidoId, byte[]> {
+    private final PedidoBinarioCodec codec;
+    private final long ttlPendienteNanos;
+    private final long ttlFinalizadoNanos;
+
+    ExpiracionPorEstado(PedidoBinarioCodec codec, Duration ttlPendiente, Duration ttlFinalizado) {
+      this.codec = codec;
+      this.ttlPendienteNanos = ttlPendiente.toNanos();
+      this.ttlFinalizadoNanos = ttlFinalizado.toNanos();
+    }
+
+    // El estado está en la cabecera del registro: no hace falta decodificar el pedido
+    private long ttl(byte[] pedido) {
+      return codec.leerEstado(ByteBuffer.wrap(pedido)) == EstadoPedido.PENDIENTE
+          ? ttlPendienteNanos
+          : ttlFinalizadoNanos;
+    }
+
+    @Override
+    public long expireAfterCreate(PedidoId id, byte[] pedido, long currentTime) {
+      return ttl(pedido);
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        PedidoId id, byte[] pedido, long currentTime, long currentDuration) {
+      return ttl(pedido);
+    }
+
+    @Override
+    public long expireAfterRead(
+        PedidoId id, byte[] pedido, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
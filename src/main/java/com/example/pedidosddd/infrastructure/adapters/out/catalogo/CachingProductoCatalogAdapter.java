@@ -0,0 +1,88 @@
+package com.example.pedidosddd.infrastructure.adapters.out.catalogo;
+
+import com.example.pedidosddd.application.ports.out.ProductoCatalogPort;
+import com.example.pedidosddd.domain.model.Producto;
+import com.example.pedidosddd.domain.model.ProductoId;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * ADAPTADOR DE SALIDA - Near-cache del catálogo de productos
+ *
+ * <p>¿Qué hace? Envuelve el catálogo real y guarda en memoria los productos por ProductoId
+ * (Producto es inmutable, se comparte tal cual). findAllById solo pide al almacén los que faltan,
+ * en una consulta.
+ *
+ * <p>Invalidación por versión: una entrada solo se sustituye por otra de versión igual o mayor. Un
+ * save de esta instancia reemplaza al momento el precio cacheado, y una lectura lenta que trae una
+ * versión anterior no puede pisarlo. Los cambios hechos por otra instancia se ven como mucho al
+ * cumplirse el TTL.
+ */
+public class CachingProductoCatalogAdapter implements ProductoCatalogPort {
+
+  private final ProductoCatalogPort delegate;
+  private final Cache<ProductoId, ProductoCatalogado> cache;
+
+  public CachingProductoCatalogAdapter(
+      ProductoCatalogPort delegate, long maxProductos, Duration ttl, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.cache =
+        Caffeine.newBuilder().maximumSize(maxProductos).expireAfterWrite(ttl).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "productos");
+  }
+
+  // Como en CachingPedidoRepositoryAdapter, la carga va fuera de la caché (sin compute + JDBC)
+  @Override
+  public Optional<ProductoCatalogado> findById(ProductoId productoId) {
+    ProductoCatalogado cacheado = cache.getIfPresent(productoId);
+    if (cacheado != null) {
+      return Optional.of(cacheado);
+    }
+    Optional<ProductoCatalogado> encontrado = delegate.findById(productoId);
+    return encontrado.map(this::guardarSiMasNuevo);
+  }
+
+  @Override
+  public Map<ProductoId, ProductoCatalogado> findAllById(Collection<ProductoId> productoIds) {
+    Map<ProductoId, ProductoCatalogado> encontrados = new HashMap<>();
+    List<ProductoId> faltan = new ArrayList<>();
+    for (ProductoId id : productoIds) {
+      ProductoCatalogado cacheado = cache.getIfPresent(id);
+      if (cacheado != null) {
+        encontrados.put(id, cacheado);
+      } else {
+        faltan.add(id);
+      }
+    }
+    if (!faltan.isEmpty()) {
+      delegate
+          .findAllById(faltan)
+          .forEach((id, leido) -> encontrados.put(id, guardarSiMasNuevo(leido)));
+    }
+    return encontrados;
+  }
+
+  @Override
+  public ProductoCatalogado save(Producto producto) {
+    return guardarSiMasNuevo(delegate.save(producto));
+  }
+
+  /** Devuelve lo que queda en caché: el leído, o uno más nuevo que ya estuviera */
+  private ProductoCatalogado guardarSiMasNuevo(ProductoCatalogado leido) {
+    return cache
+        .asMap()
+        .merge(
+            leido.producto().getId(),
+            leido,
+            (actual, candidato) -> candidato.version() >= actual.version() ? candidato : actual);
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.pedidosddd.infrastructure.adapters.out.catalogo;
+
+import com.example.pedidosddd.application.ports.out.ProductoCatalogPort;
+import com.example.pedidosddd.domain.model.Producto;
+import com.example.pedidosddd.domain.model.ProductoId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * ADAPTADOR DE SALIDA - Catálogo de productos en memoria
+ *
+ * <p>Sustituto del catálogo JPA para nodos sin base de datos (perfil "fichero") y pruebas:
+ * pedidos.catalogo.almacen=memoria. Se pierde al reiniciar, hay que volver a dar de alta los
+ * productos.
+ */
+@Component
+@Qualifier("almacenCatalogo")
+@ConditionalOnProperty(name = "pedidos.catalogo.almacen", havingValue = "memoria")
+public class EnMemoriaProductoCatalogAdapter implements ProductoCatalogPort {
+
+  private final ConcurrentHashMap<ProductoId, ProductoCatalogado> productos =
+      new ConcurrentHashMap<>();
+
+  @Override
+  public Optional<ProductoCatalogado> findById(ProductoId productoId) {
+    return Optional.ofNullable(productos.get(productoId));
+  }
+
+  @Override
+  public Map<ProductoId, ProductoCatalogado> findAllById(Collection<ProductoId> productoIds) {
+    Map<ProductoId, ProductoCatalogado> encontrados = new HashMap<>();
+    for (ProductoId id : productoIds) {
+      ProductoCatalogado catalogado = productos.get(id);
+      if (catalogado != null) {
+        encontrados.put(id, catalogado);
+      }
+    }
+    return encontrados;
+  }
+
+  /** Misma regla que el adaptador JPA: la versión solo crece si cambia nombre o precio */
+  @Override
+  public ProductoCatalogado save(Producto producto) {
+    return productos.compute(
+        producto.getId(),
+        (id, actual) -> {
+          if (actual == null) {
+            return new ProductoCatalogado(producto, 0L);
+          }
+          boolean igual =
+              actual.producto().getNombre().equals(producto.getNombre())
+                  && actual.producto().getPrecio().compareTo(producto.getPrecio()) == 0;
+          return igual ? actual : new ProductoCatalogado(producto, actual.version() + 1);
+        });
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.pedidosddd.infrastructure.adapters.out.catalogo;
+
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
+import com.example.pedidosddd.application.ports.out.ProductoCatalogPort;
+import com.example.pedidosddd.domain.model.Producto;
+import com.example.pedidosddd.domain.model.ProductoId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ADAPTADOR DE SALIDA - Catálogo de productos con JPA
+ *
+ * <p>Es el almacén por defecto (pedidos.catalogo.almacen=jpa). ProductoCatalogConfig lo envuelve
+ * con la near-cache antes de entregarlo a los use cases.
+ */
+@Repository
+@Qualifier("almacenCatalogo")
+@ConditionalOnProperty(
+    name = "pedidos.catalogo.almacen",
+    havingValue = "jpa",
+    matchIfMissing = true)
+public class JpaProductoCatalogAdapter implements ProductoCatalogPort {
+
+  private final JpaProductoRepository repository;
+
+  public JpaProductoCatalogAdapter(JpaProductoRepository repository) {
+    this.repository = repository;
+  }
+
+  @Override
+  public Optional<ProductoCatalogado> findById(ProductoId productoId) {
+    return repository.findById(productoId.getValue()).map(JpaProductoCatalogAdapter::toCatalogado);
+  }
+
+  /** Un único SELECT ... WHERE id IN (...) */
+  @Override
+  public Map<ProductoId, ProductoCatalogado> findAllById(Collection<ProductoId> productoIds) {
+    Map<ProductoId, ProductoCatalogado> encontrados = new HashMap<>();
+    for (ProductoEntity entity :
+        repository.findAllById(
+            productoIds.stream().map(ProductoId::getValue).distinct().toList())) {
+      ProductoCatalogado catalogado = toCatalogado(entity);
+      encontrados.put(catalogado.producto().getId(), catalogado);
+    }
+    return encontrados;
+  }
+
+  /**
+   * Solo se toca la fila si algo cambió: así la versión no crece sin motivo
+   *
+   * <p>Dos altas simultáneas del mismo producto chocan en la clave primaria y dos cambios
+   * simultáneos en la versión: ambos casos salen como ConflictoDeConcurrenciaException.
+   */
+  @Override
+  @Transactional
+  public ProductoCatalogado save(Producto producto) {
+    ProductoEntity entity =
+        repository
+            .findById(producto.getId().getValue())
+            .map(
+                existente -> {
+                  if (!Objects.equals(existente.getNombre(), producto.getNombre())) {
+                    existente.setNombre(producto.getNombre());
+                  }
+                  if (existente.getPrecio().compareTo(producto.getPrecio()) != 0) {
+                    existente.setPrecio(producto.getPrecio());
+                  }
+                  return existente;
+                })
+            .orElseGet(
+                () ->
+                    repository.save(
+                        new ProductoEntity(
+                            producto.getId().getValue(),
+                            producto.getNombre(),
+                            producto.getPrecio())));
+    // El flush incrementa @Version si hubo cambios
+    try {
+      repository.flush();
+    } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+      throw new ConflictoDeConcurrenciaException(
+          "El producto " + producto.getId().getValue() + " fue modificado por otra operación", e);
+    }
+    return toCatalogado(entity);
+  }
+
+  private static ProductoCatalogado toCatalogado(ProductoEntity entity) {
+    return new ProductoCatalogado(
+        new Producto(new ProductoId(entity.getId()), entity.getNombre(), entity.getPrecio()),
+        entity.getVersion());
+  }
+}
@@ -0,0 +1,6 @@
+package com.example.pedidosddd.infrastructure.adapters.out.catalogo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/** REPOSITORIO JPA - Tabla productos */
+public interface JpaProductoRepository extends JpaRepository<ProductoEntity, String> {}
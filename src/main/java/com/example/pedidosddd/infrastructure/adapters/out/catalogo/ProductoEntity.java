@@ -0,0 +1,59 @@
+package com.example.pedidosddd.infrastructure.adapters.out.catalogo;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * ENTIDAD JPA - Producto del catálogo (tabla productos)
+ *
+ * <p>La versión crece con cada cambio de nombre o precio; es la que usan las cachés para decidir
+ * qué lectura es más reciente.
+ */
+@Entity
+@Table(name = "productos")
+public class ProductoEntity {
+
+  @Id private String id;
+
+  @Version private Long version;
+
+  @Column(nullable = false)
+  private String nombre;
+
+  @Column(nullable = false, precision = 10, scale = 2)
+  private BigDecimal precio;
+
+  // Constructor para JPA
+  protected ProductoEntity() {}
+
+  public ProductoEntity(String id, String nombre, BigDecimal precio) {
+    this.id = id;
+    this.nombre = nombre;
+    this.precio = precio;
+  }
+
+  // Getters y Setters
+  public String getId() {
+    return id;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public String getNombre() {
+    return nombre;
+  }
+
+  public void setNombre(String nombre) {
+    this.nombre = nombre;
+  }
+
+  public BigDecimal getPrecio() {
+    return precio;
+  }
+
+  public void setPrecio(BigDecimal precio) {
+    this.precio = precio;
+  }
+}
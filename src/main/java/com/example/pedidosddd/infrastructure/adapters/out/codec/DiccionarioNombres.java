@@ -0,0 +1,63 @@
+package com.example.pedidosddd.infrastructure.adapters.out.codec;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Diccionario compartido de cadenas de producto (ids y nombres) → índice entero
+ *
+ * <p>Un catálogo de unos miles de SKUs se repite en millones de pedidos: con el diccionario cada
+ * línea guarda un varint en lugar de la cadena. Solo crece (los índices ya emitidos no pueden
+ * cambiar) y está acotado: lleno, el codec escribe la cadena en línea.
+ *
+ * <p>Vive en memoria: solo sirve a quien codifica y decodifica con la misma instancia (la caché).
+ * Lo que sale del proceso (fichero, réplicas) se codifica autocontenido.
+ */
+public final class DiccionarioNombres {
+
+  private final ConcurrentHashMap<String, Integer> indices = new ConcurrentHashMap<>();
+  private final AtomicReferenceArray<String> nombres;
+  private final AtomicInteger siguiente = new AtomicInteger();
+
+  public DiccionarioNombres(int maxEntradas) {
+    if (maxEntradas <= 0) {
+      throw new IllegalArgumentException("maxEntradas debe ser positivo");
+    }
+    this.nombres = new AtomicReferenceArray<>(maxEntradas);
+  }
+
+  /** Índice de la cadena, dándola de alta si hace falta; -1 si el diccionario está lleno */
+  int indice(String nombre) {
+    Integer indice = indices.get(nombre);
+    if (indice != null) {
+      return indice;
+    }
+    if (siguiente.get() >= nombres.length()) {
+      return -1;
+    }
+    return indices.computeIfAbsent(
+        nombre,
+        n -> {
+          int nuevo = siguiente.getAndIncrement();
+          if (nuevo >= nombres.length()) {
+            return -1; // Otro hilo llenó el último hueco
+          }
+          // Se publica la cadena antes que el índice: quien lea el índice ya la encuentra
+          nombres.set(nuevo, n);
+          return nuevo;
+        });
+  }
+
+  String nombre(int indice) {
+    String nombre = indice < nombres.length() ? nombres.get(indice) : null;
+    if (nombre == null) {
+      throw new IllegalArgumentException("Índice de diccionario desconocido: " + indice);
+    }
+    return nombre;
+  }
+
+  public int tamano() {
+    return Math.min(siguiente.get(), nombres.length());
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.pedidosddd.infrastructure.adapters.out.codec;
+
+import com.example.pedidosddd.domain.model.PedidoFactory;
+import com.example.pedidosddd.domain.model.Producto;
+import com.example.pedidosddd.domain.model.ProductoId;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.math.BigDecimal;
+
+/**
+ * Pool de ProductoId y Producto para las cargas (flyweight)
+ *
+ * <p>Un catálogo de unos miles de SKUs se repite en todos los pedidos: al leer N pedidos, las
+ * líneas del mismo producto comparten una única instancia de ProductoId y de Producto en lugar de
+ * crear una por fila. Ambos son Value Objects inmutables, compartirlos es seguro.
+ *
+ * <p>Acotado por tamaño y con referencias débiles: una entrada desaparece en cuanto ningún pedido
+ * en memoria usa ya ese producto, así el pool no retiene nada por sí mismo. El precio forma parte
+ * de la clave (con su escala): un producto con otro precio o nombre es otra instancia.
+ *
+ * <p>Los productos nuevos se crean con PedidoFactory.rehidratarProducto, sin revalidar: solo debe
+ * usarse con datos leídos del repositorio.
+ */
+public final class InternadoProductos {
+
+  private final Cache<String, ProductoId> productoIds;
+  private final Cache<ClaveProducto, Producto> productos;
+
+  public InternadoProductos(long maxProductos, MeterRegistry meterRegistry) {
+    this.productoIds = Caffeine.newBuilder().maximumSize(maxProductos).weakValues().build();
+    this.productos =
+        Caffeine.newBuilder().maximumSize(maxProductos).weakValues().recordStats().build();
+    // Tasa de aciertos en cache.gets{cache=productos.internados}: baja = catálogo demasiado grande
+    CaffeineCacheMetrics.monitor(meterRegistry, productos, "productos.internados");
+  }
+
+  public ProductoId productoId(String valor) {
+    return productoIds.get(valor, ProductoId::new);
+  }
+
+  public Producto producto(String productoId, String nombre, BigDecimal precio) {
+    return productos.get(
+        new ClaveProducto(productoId, nombre, precio),
+        clave ->
+            PedidoFactory.rehidratarProducto(
+                productoId(clave.productoId()), clave.nombre(), clave.precio()));
+  }
+
+  private record ClaveProducto(String productoId, String nombre, BigDecimal precio) {}
+}
@@ -0,0 +1,390 @@
+package com.example.pedidosddd.infrastructure.adapters.out.codec;
+
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoFactory;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.domain.model.PedidoItem;
+import com.example.pedidosddd.domain.model.Producto;
+import com.example.pedidosddd.domain.model.ProductoId;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * CODEC - Formato binario compacto y versionado del agregado Pedido
+ *
+ * <p>Formato compartido por la caché, el almacén en fichero y la replicación, en lugar de JSON con
+ * UUIDs como texto y BigDecimal como cadena:
+ *
+ * <ul>
+ *   <li>Cabecera: versión de formato (byte) + flags (byte). Un formato desconocido se rechaza.
+ *   <li>PedidoId: UUID como dos long (16 bytes en vez de 36). Los registros con el id como texto
+ *       (PedidoId anteriores a exigir un UUID) se siguen leyendo.
+ *   <li>Dinero: escala (byte) + valor sin escala como varlong zigzag.
+ *   <li>ProductoId y nombre: índice en un DiccionarioNombres compartido si el codec tiene uno, si
+ *       no (o si está lleno) la cadena en línea.
+ *   <li>Enteros y fechas como varint/varlong: la mayoría de cantidades ocupan un byte.
+ * </ul>
+ *
+ * <p>El id, la versión y el estado van al principio: leerId, leerVersion, leerEstado y mismoId los
+ * consultan sin decodificar el pedido. La decodificación lee directamente del ByteBuffer recibido
+ * (heap, directo o mapeado) sin copiarlo antes a un array y sin mover su posición.
+ *
+ * <p>Al decodificar, las líneas se rehidratan sin revalidar (PedidoFactory.rehidratarItem) y, si el
+ * codec tiene un InternadoProductos, los productos repetidos comparten instancia.
+ *
+ * <p>Es thread-safe: no guarda estado salvo el diccionario y el pool, que lo son.
+ */
+public final class PedidoBinarioCodec {
+
+  public static final byte FORMATO_V1 = 1;
+
+  private static final int FLAG_DICCIONARIO = 1;
+  private static final byte ID_UUID = 0;
+  // Solo en registros escritos por versiones anteriores (se leen, ya no se escriben)
+  private static final byte ID_TEXTO = 1;
+  private static final EstadoPedido[] ESTADOS = EstadoPedido.values();
+
+  private final DiccionarioNombres diccionario;
+  private final InternadoProductos internado;
+
+  /** Codec autocontenido: cada registro se decodifica solo (fichero, réplicas) */
+  public PedidoBinarioCodec() {
+    this(null);
+  }
+
+  /** Codec con diccionario compartido: registros más pequeños, solo válidos en este proceso */
+  public PedidoBinarioCodec(DiccionarioNombres diccionario) {
+    this(diccionario, null);
+  }
+
+  /** internado puede ser null: entonces cada línea decodificada tiene su propio Producto */
+  public PedidoBinarioCodec(DiccionarioNombres diccionario, InternadoProductos internado) {
+    this.diccionario = diccionario;
+    this.internado = internado;
+  }
+
+  // ========== CODIFICACIÓN ==========
+
+  /** Pedido completo, con la versión que tenga (null incluido) */
+  public byte[] codificar(Pedido pedido) {
+    return codificar(pedido, pedido.getVersion());
+  }
+
+  /** Pedido completo con otra versión (la que le asigna el almacén al guardarlo) */
+  public byte[] codificar(Pedido pedido, Long version) {
+    Salida out = new Salida(48 + pedido.getItems().size() * 24);
+    escribirCabecera(out, pedido.getId());
+    // version + 1: 0 representa null (pedido nunca guardado)
+    out.varlong(version == null ? 0 : version + 1);
+    out.byte_(pedido.getEstado().ordinal());
+    escribirFecha(out, pedido.getFechaCreacion());
+    escribirFecha(out, pedido.getFechaActualizacion());
+    escribirDinero(out, pedido.calcularTotal());
+    out.varint(pedido.getItems().size());
+    for (PedidoItem item : pedido.getItems()) {
+      escribirItem(out, item);
+    }
+    return out.bytes();
+  }
+
+  /** Solo la cabecera y el id: mismo prefijo que un pedido (p. ej. marcas de borrado) */
+  public byte[] codificarId(PedidoId pedidoId) {
+    Salida out = new Salida(24);
+    escribirCabecera(out, pedidoId);
+    return out.bytes();
+  }
+
+  private void escribirCabecera(Salida out, PedidoId pedidoId) {
+    out.byte_(FORMATO_V1);
+    out.byte_(diccionario != null ? FLAG_DICCIONARIO : 0);
+    escribirPedidoId(out, pedidoId);
+  }
+
+  private static void escribirPedidoId(Salida out, PedidoId pedidoId) {
+    UUID uuid = pedidoId.toUuid();
+    out.byte_(ID_UUID);
+    out.long_(uuid.getMostSignificantBits());
+    out.long_(uuid.getLeastSignificantBits());
+  }
+
+  private void escribirItem(Salida out, PedidoItem item) {
+    escribirProducto(out, item.getProducto());
+    out.varint(item.getCantidad());
+    // El precio unitario es el del producto al agregarlo: no se repite
+  }
+
+  private void escribirProducto(Salida out, Producto producto) {
+    escribirNombre(out, producto.getId().getValue());
+    escribirNombre(out, producto.getNombre());
+    escribirDinero(out, producto.getPrecio());
+  }
+
+  /** varint(índice + 1), o 0 seguido de la cadena en línea */
+  private void escribirNombre(Salida out, String nombre) {
+    int indice = diccionario != null ? diccionario.indice(nombre) : -1;
+    if (indice >= 0) {
+      out.varint(indice + 1);
+    } else {
+      out.varint(0);
+      out.texto(nombre);
+    }
+  }
+
+  private static void escribirDinero(Salida out, BigDecimal importe) {
+    // longValueExact: un importe que no cabe en un long es un error, no se trunca
+    if (importe.scale() < Byte.MIN_VALUE || importe.scale() > Byte.MAX_VALUE) {
+      throw new ArithmeticException("Escala fuera de rango: " + importe);
+    }
+    out.byte_(importe.scale());
+    out.varlong(zigzag(importe.unscaledValue().longValueExact()));
+  }
+
+  private static void escribirFecha(Salida out, LocalDateTime fecha) {
+    out.varlong(zigzag(fecha.toEpochSecond(ZoneOffset.UTC)));
+    out.varint(fecha.getNano());
+  }
+
+  // ========== DECODIFICACIÓN ==========
+
+  /** Decodifica el pedido que empieza en la posición actual del buffer (no la modifica) */
+  public Pedido decodificar(ByteBuffer origen) {
+    Entrada in = new Entrada(origen);
+    PedidoId id = leerPedidoId(in);
+    long version = in.varlong();
+    EstadoPedido estado = ESTADOS[in.byte_()];
+    LocalDateTime fechaCreacion = leerFecha(in);
+    LocalDateTime fechaActualizacion = leerFecha(in);
+    BigDecimal total = leerDinero(in);
+    int numItems = in.varint();
+    List<PedidoItem> items = new ArrayList<>(numItems);
+    for (int i = 0; i < numItems; i++) {
+      items.add(PedidoFactory.rehidratarItem(leerProducto(in), in.varint()));
+    }
+    return PedidoFactory.recrearPedidoDesdeRepositorio(
+        id,
+        items,
+        estado,
+        fechaCreacion,
+        fechaActualizacion,
+        total,
+        version == 0 ? null : version - 1);
+  }
+
+  public PedidoId leerId(ByteBuffer origen) {
+    return leerPedidoId(new Entrada(origen));
+  }
+
+  public Long leerVersion(ByteBuffer origen) {
+    Entrada in = new Entrada(origen);
+    saltarPedidoId(in);
+    long version = in.varlong();
+    return version == 0 ? null : version - 1;
+  }
+
+  public EstadoPedido leerEstado(ByteBuffer origen) {
+    Entrada in = new Entrada(origen);
+    saltarPedidoId(in);
+    in.varlong();
+    return ESTADOS[in.byte_()];
+  }
+
+  /** Compara el id del registro sin crear objetos (salvo en registros antiguos con id de texto) */
+  public boolean mismoId(ByteBuffer origen, PedidoId pedidoId) {
+    Entrada in = new Entrada(origen);
+    byte tipo = in.cabecera();
+    if (tipo == ID_UUID) {
+      UUID uuid = pedidoId.toUuid();
+      return in.long_() == uuid.getMostSignificantBits()
+          && in.long_() == uuid.getLeastSignificantBits();
+    }
+    return leerPedidoIdTexto(in).equals(pedidoId);
+  }
+
+  private PedidoId leerPedidoId(Entrada in) {
+    byte tipo = in.cabecera();
+    return tipo == ID_TEXTO
+        ? leerPedidoIdTexto(in)
+        : new PedidoId(new UUID(in.long_(), in.long_()));
+  }
+
+  // PedidoId normaliza el texto o lo rechaza si no es un UUID
+  private static PedidoId leerPedidoIdTexto(Entrada in) {
+    return new PedidoId(in.texto());
+  }
+
+  private static void saltarPedidoId(Entrada in) {
+    if (in.cabecera() == ID_UUID) {
+      in.saltar(16);
+    } else {
+      in.saltar(in.varint());
+    }
+  }
+
+  private Producto leerProducto(Entrada in) {
+    String productoId = leerNombre(in);
+    String nombre = leerNombre(in);
+    BigDecimal precio = leerDinero(in);
+    return internado != null
+        ? internado.producto(productoId, nombre, precio)
+        : PedidoFactory.rehidratarProducto(new ProductoId(productoId), nombre, precio);
+  }
+
+  private String leerNombre(Entrada in) {
+    int indice = in.varint();
+    if (indice == 0) {
+      return in.texto();
+    }
+    if (!in.conDiccionario || diccionario == null) {
+      throw new IllegalArgumentException("Registro codificado con un diccionario no disponible");
+    }
+    return diccionario.nombre(indice - 1);
+  }
+
+  private static BigDecimal leerDinero(Entrada in) {
+    int escala = in.byte_();
+    return BigDecimal.valueOf(unzigzag(in.varlong()), escala);
+  }
+
+  private static LocalDateTime leerFecha(Entrada in) {
+    return LocalDateTime.ofEpochSecond(unzigzag(in.varlong()), in.varint(), ZoneOffset.UTC);
+  }
+
+  // ========== AUXILIARES ==========
+
+  private static long zigzag(long valor) {
+    return (valor << 1) ^ (valor >> 63);
+  }
+
+  private static long unzigzag(long valor) {
+    return (valor >>> 1) ^ -(valor & 1);
+  }
+
+  /** Buffer de escritura que crece según hace falta */
+  private static final class Salida {
+    private byte[] datos;
+    private int pos;
+
+    Salida(int capacidad) {
+      this.datos = new byte[capacidad];
+    }
+
+    void byte_(int valor) {
+      asegurar(1);
+      datos[pos++] = (byte) valor;
+    }
+
+    void long_(long valor) {
+      asegurar(8);
+      for (int i = 56; i >= 0; i -= 8) {
+        datos[pos++] = (byte) (valor >>> i);
+      }
+    }
+
+    void varint(int valor) {
+      varlong(valor & 0xFFFFFFFFL);
+    }
+
+    void varlong(long valor) {
+      asegurar(10);
+      while ((valor & ~0x7FL) != 0) {
+        datos[pos++] = (byte) ((valor & 0x7F) | 0x80);
+        valor >>>= 7;
+      }
+      datos[pos++] = (byte) valor;
+    }
+
+    void texto(String valor) {
+      byte[] utf8 = valor.getBytes(StandardCharsets.UTF_8);
+      varint(utf8.length);
+      asegurar(utf8.length);
+      System.arraycopy(utf8, 0, datos, pos, utf8.length);
+      pos += utf8.length;
+    }
+
+    byte[] bytes() {
+      return Arrays.copyOf(datos, pos);
+    }
+
+    private void asegurar(int bytes) {
+      if (pos + bytes > datos.length) {
+        datos = Arrays.copyOf(datos, Math.max(datos.length * 2, pos + bytes));
+      }
+    }
+  }
+
+  /** Lectura con índice propio sobre el ByteBuffer: no copia ni mueve su posición */
+  private static final class Entrada {
+    private final ByteBuffer buffer;
+    private int pos;
+    private boolean conDiccionario;
+
+    Entrada(ByteBuffer buffer) {
+      this.buffer = buffer;
+      this.pos = buffer.position();
+    }
+
+    /** Lee formato y flags; devuelve el tipo de PedidoId que sigue */
+    byte cabecera() {
+      byte formato = buffer.get(pos++);
+      if (formato != FORMATO_V1) {
+        throw new IllegalArgumentException("Formato binario de Pedido no soportado: " + formato);
+      }
+      conDiccionario = (buffer.get(pos++) & FLAG_DICCIONARIO) != 0;
+      return buffer.get(pos++);
+    }
+
+    int byte_() {
+      return buffer.get(pos++);
+    }
+
+    long long_() {
+      long valor = buffer.getLong(pos);
+      pos += 8;
+      return valor;
+    }
+
+    int varint() {
+      return (int) varlong();
+    }
+
+    long varlong() {
+      long valor = 0;
+      for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+        byte b = buffer.get(pos++);
+        valor |= (long) (b & 0x7F) << desplazamiento;
+        if (b >= 0) {
+          return valor;
+        }
+      }
+      throw new IllegalArgumentException("varint mal formado");
+    }
+
+    String texto() {
+      int longitud = varint();
+      String valor;
+      if (buffer.hasArray()) {
+        valor =
+            new String(
+                buffer.array(), buffer.arrayOffset() + pos, longitud, StandardCharsets.UTF_8);
+      } else {
+        byte[] utf8 = new byte[longitud];
+        buffer.get(pos, utf8);
+        valor = new String(utf8, StandardCharsets.UTF_8);
+      }
+      pos += longitud;
+      return valor;
+    }
+
+    void saltar(int bytes) {
+      pos += bytes;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.pedidosddd.infrastructure.adapters.out.eventos;
+
+import com.example.pedidosddd.application.ports.out.PublicadorEventosPort;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * ADAPTADOR DE SALIDA - Publicador de eventos en memoria
+ *
+ * <p>Sustituto del broker para desarrollo y pruebas: guarda los eventos publicados para poder
+ * inspeccionarlos. Es el publicador por defecto (pedidos.outbox.publicador=memoria).
+ */
+@Component
+@ConditionalOnProperty(
+    name = "pedidos.outbox.publicador",
+    havingValue = "memoria",
+    matchIfMissing = true)
+public class EnMemoriaPublicadorEventos implements PublicadorEventosPort {
+
+  private final ConcurrentLinkedQueue<EventoPublicable> publicados = new ConcurrentLinkedQueue<>();
+
+  @Override
+  public void publicar(List<EventoPublicable> eventos) {
+    publicados.addAll(eventos);
+  }
+
+  /** Eventos publicados hasta ahora, en orden de publicación */
+  public List<EventoPublicable> getPublicados() {
+    return List.copyOf(publicados);
+  }
+
+  public void limpiar() {
+    publicados.clear();
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.pedidosddd.infrastructure.adapters.out.eventos;
+
+import com.example.pedidosddd.domain.event.EventoPedido;
+import com.example.pedidosddd.domain.event.PedidoCancelado;
+import com.example.pedidosddd.domain.event.PedidoCompletado;
+import com.example.pedidosddd.domain.event.PedidoCreado;
+import com.example.pedidosddd.domain.event.ProductoAgregado;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.domain.model.ProductoId;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.time.LocalDateTime;
+import org.springframework.stereotype.Component;
+
+/**
+ * CODEC - Eventos de dominio de Pedido en JSON
+ *
+ * <p>Formato único para el outbox y para el event store: JSON plano con ids como String, así los
+ * consumidores no dependen de las clases del dominio. El tipo va aparte (nombre simple del evento).
+ */
+@Component
+public class EventoPedidoJsonCodec {
+
+  private final ObjectMapper objectMapper;
+
+  public EventoPedidoJsonCodec(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  public String tipo(EventoPedido evento) {
+    return evento.getClass().getSimpleName();
+  }
+
+  public String toJson(EventoPedido evento) {
+    ObjectNode json = objectMapper.createObjectNode();
+    json.put("pedidoId", evento.pedidoId().getValue());
+    if (evento instanceof ProductoAgregado agregado) {
+      json.put("productoId", agregado.productoId().getValue());
+      json.put("nombreProducto", agregado.nombreProducto());
+      json.put("cantidad", agregado.cantidad());
+      json.put("precioUnitario", agregado.precioUnitario());
+    } else if (evento instanceof PedidoCompletado completado) {
+      json.put("total", completado.total());
+    } else if (!(evento instanceof PedidoCreado) && !(evento instanceof PedidoCancelado)) {
+      throw new IllegalArgumentException("Evento de dominio no soportado: " + evento.getClass());
+    }
+    json.put("ocurridoEn", evento.ocurridoEn().toString());
+    try {
+      return objectMapper.writeValueAsString(json);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("No se pudo serializar el evento " + evento, e);
+    }
+  }
+
+  public EventoPedido fromJson(String tipo, String payload) {
+    JsonNode json;
+    try {
+      json = objectMapper.readTree(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Evento " + tipo + " ilegible: " + payload, e);
+    }
+    PedidoId pedidoId = new PedidoId(json.get("pedidoId").asText());
+    LocalDateTime ocurridoEn = LocalDateTime.parse(json.get("ocurridoEn").asText());
+    return switch (tipo) {
+      case "PedidoCreado" -> new PedidoCreado(pedidoId, ocurridoEn);
+      case "ProductoAgregado" ->
+          new ProductoAgregado(
+              pedidoId,
+              new ProductoId(json.get("productoId").asText()),
+              json.get("nombreProducto").asText(),
+              json.get("cantidad").asInt(),
+              json.get("precioUnitario").decimalValue(),
+              ocurridoEn);
+      case "PedidoCompletado" ->
+          new PedidoCompletado(pedidoId, json.get("total").decimalValue(), ocurridoEn);
+      case "PedidoCancelado" -> new PedidoCancelado(pedidoId, ocurridoEn);
+      default -> throw new IllegalArgumentException("Tipo de evento desconocido: " + tipo);
+    };
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.pedidosddd.infrastructure.adapters.out.eventos;
+
+import com.example.pedidosddd.application.ports.out.PublicadorEventosPort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * ADAPTADOR DE SALIDA - Publicador de eventos a fichero NDJSON
+ *
+ * <p>Sustituto del broker para entornos sin mensajería: añade un evento por línea al fichero
+ * configurado y fuerza el lote a disco antes de que el relay borre las filas del outbox
+ * (pedidos.outbox.publicador=fichero).
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.outbox.publicador", havingValue = "fichero")
+public class FicheroPublicadorEventos implements PublicadorEventosPort {
+
+  private final Path fichero;
+  private final ObjectWriter writer;
+
+  public FicheroPublicadorEventos(
+      @Value("${pedidos.outbox.fichero:eventos-pedidos.ndjson}") Path fichero,
+      ObjectMapper objectMapper) {
+    this.fichero = fichero;
+    this.writer = objectMapper.writerFor(EventoPublicable.class);
+  }
+
+  @Override
+  public synchronized void publicar(List<EventoPublicable> eventos) {
+    try {
+      ByteArrayOutputStream lote = new ByteArrayOutputStream();
+      for (EventoPublicable evento : eventos) {
+        lote.write(writer.writeValueAsBytes(evento));
+        lote.write('\n');
+      }
+      try (FileChannel canal =
+          FileChannel.open(fichero, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+        ByteBuffer buffer = ByteBuffer.wrap(lote.toByteArray());
+        while (buffer.hasRemaining()) {
+          canal.write(buffer);
+        }
+        canal.force(false);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("No se pudieron escribir los eventos en " + fichero, e);
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package com.example.pedidosddd.infrastructure.adapters.out.eventstore;
+
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
+import com.example.pedidosddd.application.ports.out.PedidoRepositoryPort;
+import com.example.pedidosddd.domain.event.EventoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoFactory;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.PedidoBinarioCodec;
+import com.example.pedidosddd.infrastructure.adapters.out.eventos.EventoPedidoJsonCodec;
+import com.example.pedidosddd.infrastructure.adapters.out.persistence.JpaOutboxRepository;
+import com.example.pedidosddd.infrastructure.adapters.out.persistence.OutboxEventoMapper;
+import com.example.pedidosddd.infrastructure.adapters.out.resumen.PedidoResumenProyector;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ADAPTADOR DE SALIDA - Persistencia por eventos (event sourcing) con snapshots
+ *
+ * <p>¿Qué hace? Cada save añade los eventos pendientes del pedido al final de su historial
+ * (pedido_eventos): solo INSERTs secuenciales, nunca UPDATE de la fila del pedido, así que los
+ * carritos muy modificados no compiten por la misma fila. El historial sirve además de auditoría.
+ *
+ * <p>Cada K eventos se guarda un snapshot del estado completo (PedidoBinarioCodec); findById parte
+ * del último snapshot y reproduce como mucho K eventos con PedidoFactory.recrearPedidoDesdeEventos.
+ *
+ * <p>La versión del Pedido es la secuencia de su último evento. Los eventos también van al outbox
+ * en la misma transacción, igual que con JpaPedidoRepositoryAdapter, y lo mismo la proyección
+ * pedido_resumen.
+ *
+ * <p>En Hexagonal: Se activa con el perfil "eventsourcing" y sustituye al adaptador JPA como
+ * almacén; los use cases y la caché no cambian.
+ */
+@Repository
+@Qualifier("almacenPedidos")
+@Profile("eventsourcing")
+public class EventSourcedPedidoRepositoryAdapter implements PedidoRepositoryPort {
+
+  private final JpaPedidoEventoRepository eventoRepository;
+  private final JpaPedidoSnapshotRepository snapshotRepository;
+  private final JpaOutboxRepository outboxRepository;
+  private final OutboxEventoMapper outboxMapper;
+  private final EventoPedidoJsonCodec codec;
+  private final PedidoResumenProyector resumenProyector;
+  private final PedidoBinarioCodec snapshotCodec = new PedidoBinarioCodec();
+  private final int eventosPorSnapshot;
+
+  public EventSourcedPedidoRepositoryAdapter(
+      JpaPedidoEventoRepository eventoRepository,
+      JpaPedidoSnapshotRepository snapshotRepository,
+      JpaOutboxRepository outboxRepository,
+      OutboxEventoMapper outboxMapper,
+      EventoPedidoJsonCodec codec,
+      PedidoResumenProyector resumenProyector,
+      @Value("${pedidos.event-store.eventos-por-snapshot:50}") int eventosPorSnapshot) {
+    if (eventosPorSnapshot <= 0) {
+      throw new IllegalArgumentException("eventos-por-snapshot debe ser positivo");
+    }
+    this.eventoRepository = eventoRepository;
+    this.snapshotRepository = snapshotRepository;
+    this.outboxRepository = outboxRepository;
+    this.outboxMapper = outboxMapper;
+    this.codec = codec;
+    this.resumenProyector = resumenProyector;
+    this.eventosPorSnapshot = eventosPorSnapshot;
+  }
+
+  /** Último snapshot + eventos posteriores (como mucho K) */
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<Pedido> findById(PedidoId pedidoId) {
+    Optional<PedidoSnapshotEntity> snapshot = snapshotRepository.findById(pedidoId.getValue());
+    long desde = snapshot.map(PedidoSnapshotEntity::getSecuencia).orElse(0L);
+
+    List<PedidoEventoEntity> cola =
+        eventoRepository.findByPedidoIdAndSecuenciaGreaterThanOrderBySecuencia(
+            pedidoId.getValue(), desde);
+    if (snapshot.isEmpty() && cola.isEmpty()) {
+      return Optional.empty();
+    }
+
+    long version = cola.isEmpty() ? desde : cola.get(cola.size() - 1).getSecuencia();
+    List<EventoPedido> eventos = new ArrayList<>(cola.size());
+    for (PedidoEventoEntity evento : cola) {
+      eventos.add(codec.fromJson(evento.getTipo(), evento.getPayload()));
+    }
+    return Optional.of(
+        PedidoFactory.recrearPedidoDesdeEventos(
+            snapshot
+                .map(s -> snapshotCodec.decodificar(ByteBuffer.wrap(s.getPayload())))
+                .orElse(null),
+            eventos,
+            version));
+  }
+
+  /** Basta con que tenga algún evento: no se lee el snapshot ni se reproduce nada */
+  @Override
+  @Transactional(readOnly = true)
+  public boolean existsById(PedidoId pedidoId) {
+    return eventoRepository.ultimaSecuencia(pedidoId.getValue()).isPresent();
+  }
+
+  /**
+   * Añade los eventos pendientes con secuencias version+1, version+2...
+   *
+   * @throws ConflictoDeConcurrenciaException si el historial avanzó desde que se leyó el pedido
+   */
+  @Override
+  @Transactional
+  public Pedido save(Pedido pedido) {
+    String id = pedido.getId().getValue();
+    List<EventoPedido> eventos = pedido.getEventosPendientes();
+    long version = pedido.getVersion() != null ? pedido.getVersion() : 0L;
+
+    // Comprobación temprana; la restricción única cubre la carrera entre esta lectura y el INSERT
+    long ultima = eventoRepository.ultimaSecuencia(id).orElse(0L);
+    if (ultima != version) {
+      throw new ConflictoDeConcurrenciaException(
+          "El pedido " + id + " fue modificado por otra operación");
+    }
+    if (eventos.isEmpty()) {
+      return pedido; // Nada que añadir
+    }
+
+    List<PedidoEventoEntity> nuevos = new ArrayList<>(eventos.size());
+    long secuencia = version;
+    for (EventoPedido evento : eventos) {
+      nuevos.add(
+          new PedidoEventoEntity(
+              id, ++secuencia, codec.tipo(evento), codec.toJson(evento), evento.ocurridoEn()));
+    }
+    eventoRepository.saveAll(nuevos);
+    outboxRepository.saveAll(outboxMapper.toEntities(eventos));
+    resumenProyector.proyectar(pedido);
+
+    // Snapshot al cruzar un múltiplo de K: findById nunca reproduce más de K eventos
+    if (version / eventosPorSnapshot != secuencia / eventosPorSnapshot) {
+      snapshotRepository.save(
+          new PedidoSnapshotEntity(id, secuencia, snapshotCodec.codificar(pedido, secuencia)));
+    }
+
+    try {
+      eventoRepository.flush();
+    } catch (DataIntegrityViolationException e) {
+      throw new ConflictoDeConcurrenciaException(
+          "El pedido " + id + " fue modificado por otra operación", e);
+    }
+    pedido.limpiarEventos();
+
+    return PedidoFactory.recrearPedidoDesdeRepositorio(
+        pedido.getId(),
+        pedido.getItems(),
+        pedido.getEstado(),
+        pedido.getFechaCreacion(),
+        pedido.getFechaActualizacion(),
+        pedido.calcularTotal(),
+        secuencia);
+  }
+
+  /** Borra historial y snapshot del pedido */
+  @Override
+  @Transactional
+  public void deleteById(PedidoId pedidoId) {
+    eventoRepository.borrarHistorial(pedidoId.getValue());
+    snapshotRepository.deleteById(pedidoId.getValue());
+    resumenProyector.eliminar(pedidoId);
+  }
+}
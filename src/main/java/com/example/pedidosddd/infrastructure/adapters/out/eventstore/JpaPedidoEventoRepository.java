@@ -0,0 +1,23 @@
+package com.example.pedidosddd.infrastructure.adapters.out.eventstore;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/** REPOSITORIO JPA - Historial de eventos de pedidos (pedido_eventos) */
+public interface JpaPedidoEventoRepository extends JpaRepository<PedidoEventoEntity, Long> {
+
+  /** Cola de eventos posterior a una secuencia (0 = historial completo), en orden */
+  List<PedidoEventoEntity> findByPedidoIdAndSecuenciaGreaterThanOrderBySecuencia(
+      String pedidoId, long secuencia);
+
+  @Query("SELECT MAX(e.secuencia) FROM PedidoEventoEntity e WHERE e.pedidoId = :pedidoId")
+  Optional<Long> ultimaSecuencia(@Param("pedidoId") String pedidoId);
+
+  @Modifying
+  @Query("DELETE FROM PedidoEventoEntity e WHERE e.pedidoId = :pedidoId")
+  int borrarHistorial(@Param("pedidoId") String pedidoId);
+}
@@ -0,0 +1,6 @@
+package com.example.pedidosddd.infrastructure.adapters.out.eventstore;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/** REPOSITORIO JPA - Snapshots de pedidos (pedido_snapshots) */
+public interface JpaPedidoSnapshotRepository extends JpaRepository<PedidoSnapshotEntity, String> {}
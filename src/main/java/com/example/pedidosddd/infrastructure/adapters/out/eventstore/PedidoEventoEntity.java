@@ -0,0 +1,82 @@
+package com.example.pedidosddd.infrastructure.adapters.out.eventstore;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * ENTIDAD JPA - Un evento del historial de un pedido (append-only, nunca se actualiza)
+ *
+ * <p>secuencia es la posición del evento dentro de su pedido (1, 2, 3...). La restricción única
+ * (pedido_id, secuencia) hace de control de concurrencia: dos escritores que partan de la misma
+ * versión intentan insertar la misma secuencia y solo uno lo consigue.
+ */
+@Entity
+@Table(
+    name = "pedido_eventos",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_pedido_eventos_secuencia",
+            columnNames = {"pedido_id", "secuencia"}))
+public class PedidoEventoEntity {
+
+  // Secuencia pooled, como pedido_items: los eventos de un save se insertan en un solo lote
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_eventos_seq")
+  @SequenceGenerator(
+      name = "pedido_eventos_seq",
+      sequenceName = "pedido_eventos_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @Column(name = "pedido_id", nullable = false)
+  private String pedidoId;
+
+  @Column(nullable = false)
+  private long secuencia;
+
+  @Column(nullable = false, length = 50)
+  private String tipo;
+
+  @Column(nullable = false, length = 4000)
+  private String payload;
+
+  @Column(name = "ocurrido_en", nullable = false)
+  private LocalDateTime ocurridoEn;
+
+  // Constructor para JPA
+  protected PedidoEventoEntity() {}
+
+  public PedidoEventoEntity(
+      String pedidoId, long secuencia, String tipo, String payload, LocalDateTime ocurridoEn) {
+    this.pedidoId = pedidoId;
+    this.secuencia = secuencia;
+    this.tipo = tipo;
+    this.payload = payload;
+    this.ocurridoEn = ocurridoEn;
+  }
+
+  // Getters
+  public Long getId() {
+    return id;
+  }
+
+  public String getPedidoId() {
+    return pedidoId;
+  }
+
+  public long getSecuencia() {
+    return secuencia;
+  }
+
+  public String getTipo() {
+    return tipo;
+  }
+
+  public String getPayload() {
+    return payload;
+  }
+
+  public LocalDateTime getOcurridoEn() {
+    return ocurridoEn;
+  }
+}
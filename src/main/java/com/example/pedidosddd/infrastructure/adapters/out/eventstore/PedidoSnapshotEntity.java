@@ -0,0 +1,48 @@
+package com.example.pedidosddd.infrastructure.adapters.out.eventstore;
+
+import jakarta.persistence.*;
+
+/**
+ * ENTIDAD JPA - Último snapshot de un pedido
+ *
+ * <p>Estado completo del pedido tras aplicar los eventos hasta secuencia, codificado con
+ * PedidoBinarioCodec. Al leer se parte de aquí y solo se reproducen los eventos posteriores. Una
+ * fila por pedido, se sobrescribe cada K eventos.
+ */
+@Entity
+@Table(name = "pedido_snapshots")
+public class PedidoSnapshotEntity {
+
+  @Id
+  @Column(name = "pedido_id")
+  private String pedidoId;
+
+  @Column(nullable = false)
+  private long secuencia;
+
+  // bytea en PostgreSQL; la longitud evita el VARBINARY(255) por defecto en H2
+  @Column(nullable = false, length = 16 * 1024 * 1024)
+  private byte[] payload;
+
+  // Constructor para JPA
+  protected PedidoSnapshotEntity() {}
+
+  public PedidoSnapshotEntity(String pedidoId, long secuencia, byte[] payload) {
+    this.pedidoId = pedidoId;
+    this.secuencia = secuencia;
+    this.payload = payload;
+  }
+
+  // Getters
+  public String getPedidoId() {
+    return pedidoId;
+  }
+
+  public long getSecuencia() {
+    return secuencia;
+  }
+
+  public byte[] getPayload() {
+    return payload;
+  }
+}
@@ -0,0 +1,152 @@
+package com.example.pedidosddd.infrastructure.adapters.out.fichero;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Índice id → offset fuera del heap (ByteBuffer directo), hash abierto con sondeo lineal
+ *
+ * <p>Cada slot ocupa 16 bytes: hash del id (long) y offset+1 del registro en el segmento (long; 0 =
+ * vacío, -1 = borrado). Los ids no se guardan aquí: ante dos hashes iguales se decide con
+ * esMismoId(offset), que compara el id del registro en el fichero. Así el índice de millones de
+ * pedidos no genera objetos que el GC tenga que recorrer.
+ *
+ * <p>No es thread-safe: lo protege el lock del adaptador.
+ */
+final class IndiceOffHeap {
+
+  private static final int BYTES_SLOT = 16;
+  private static final long VACIO = 0L;
+  private static final long BORRADO = -1L;
+  private static final double CARGA_MAXIMA = 0.7;
+
+  private ByteBuffer slots;
+  private int capacidad; // Siempre potencia de 2
+  private int ocupados; // Vivos + borrados: determina cuándo crecer
+  private int vivos;
+
+  IndiceOffHeap(int capacidadInicial) {
+    int c = 16;
+    while (c < capacidadInicial) {
+      c <<= 1;
+    }
+    this.capacidad = c;
+    this.slots = ByteBuffer.allocateDirect(capacidad * BYTES_SLOT);
+  }
+
+  /** Offset del registro del id, o -1 si no está */
+  long buscar(long hash, LongPredicate esMismoId) {
+    int mascara = capacidad - 1;
+    for (int i = indice(hash) & mascara; ; i = (i + 1) & mascara) {
+      long valor = slots.getLong(i * BYTES_SLOT + 8);
+      if (valor == VACIO) {
+        return -1;
+      }
+      if (valor != BORRADO && slots.getLong(i * BYTES_SLOT) == hash && esMismoId.test(valor - 1)) {
+        return valor - 1;
+      }
+    }
+  }
+
+  /** Inserta o sustituye el offset del id */
+  void poner(long hash, long offset, LongPredicate esMismoId) {
+    if (ocupados + 1 > capacidad * CARGA_MAXIMA) {
+      redimensionar(vivos * 2 + 1 > capacidad * CARGA_MAXIMA ? capacidad * 2 : capacidad);
+    }
+    int mascara = capacidad - 1;
+    int libre = -1;
+    for (int i = indice(hash) & mascara; ; i = (i + 1) & mascara) {
+      long valor = slots.getLong(i * BYTES_SLOT + 8);
+      if (valor == VACIO) {
+        if (libre < 0) {
+          libre = i;
+          ocupados++;
+        }
+        escribir(libre, hash, offset);
+        vivos++;
+        return;
+      }
+      if (valor == BORRADO) {
+        if (libre < 0) {
+          libre = i; // Se reutiliza el primer hueco borrado, pero hay que seguir buscando el id
+        }
+      } else if (slots.getLong(i * BYTES_SLOT) == hash && esMismoId.test(valor - 1)) {
+        escribir(i, hash, offset);
+        return;
+      }
+    }
+  }
+
+  /** Quita el id; devuelve el offset que tenía o -1 */
+  long quitar(long hash, LongPredicate esMismoId) {
+    int mascara = capacidad - 1;
+    for (int i = indice(hash) & mascara; ; i = (i + 1) & mascara) {
+      long valor = slots.getLong(i * BYTES_SLOT + 8);
+      if (valor == VACIO) {
+        return -1;
+      }
+      if (valor != BORRADO && slots.getLong(i * BYTES_SLOT) == hash && esMismoId.test(valor - 1)) {
+        slots.putLong(i * BYTES_SLOT + 8, BORRADO);
+        vivos--;
+        return valor - 1;
+      }
+    }
+  }
+
+  int tamano() {
+    return vivos;
+  }
+
+  /** Recorre los offsets vivos (compactación) */
+  void recorrer(LongConsumer consumidor) {
+    for (int i = 0; i < capacidad; i++) {
+      long valor = slots.getLong(i * BYTES_SLOT + 8);
+      if (valor != VACIO && valor != BORRADO) {
+        consumidor.accept(valor - 1);
+      }
+    }
+  }
+
+  private void escribir(int slot, long hash, long offset) {
+    slots.putLong(slot * BYTES_SLOT, hash);
+    slots.putLong(slot * BYTES_SLOT + 8, offset + 1);
+  }
+
+  /** Reconstruye la tabla (crece o solo limpia borrados); los hashes ya guardados bastan */
+  private void redimensionar(int nuevaCapacidad) {
+    ByteBuffer anteriores = slots;
+    int capacidadAnterior = capacidad;
+    slots = ByteBuffer.allocateDirect(nuevaCapacidad * BYTES_SLOT);
+    capacidad = nuevaCapacidad;
+    ocupados = 0;
+    int mascara = capacidad - 1;
+    for (int j = 0; j < capacidadAnterior; j++) {
+      long valor = anteriores.getLong(j * BYTES_SLOT + 8);
+      if (valor == VACIO || valor == BORRADO) {
+        continue;
+      }
+      long hash = anteriores.getLong(j * BYTES_SLOT);
+      int i = indice(hash) & mascara;
+      while (slots.getLong(i * BYTES_SLOT + 8) != VACIO) {
+        i = (i + 1) & mascara;
+      }
+      escribir(i, hash, valor - 1);
+      ocupados++;
+    }
+  }
+
+  private static int indice(long hash) {
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  /** FNV-1a de 64 bits sobre los caracteres del id */
+  static long hash(String id) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < id.length(); i++) {
+      h ^= id.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    return h;
+  }
+}
@@ -0,0 +1,408 @@
+package com.example.pedidosddd.infrastructure.adapters.out.fichero;
+
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
+import com.example.pedidosddd.application.ports.out.PedidoRepositoryPort;
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.PedidoBinarioCodec;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * ADAPTADOR DE SALIDA - Persistencia en un segmento de fichero mapeado en memoria
+ *
+ * <p>¿Para qué? Nodos de tienda sin base de datos: los pedidos sobreviven a un reinicio sin H2 ni
+ * Hibernate. Cada save añade al final del segmento un registro con el pedido completo codificado
+ * con PedidoBinarioCodec (autocontenido, sin diccionario compartido); el índice id → offset vive
+ * fuera del heap (IndiceOffHeap) y findById decodifica directamente del fichero mapeado.
+ *
+ * <p>Registro: [longitud int][crc32 int][tipo byte][payload]. La longitud se escribe la última, así
+ * que un registro a medias (caída durante la escritura) queda con longitud 0 o CRC incorrecto. Al
+ * arrancar se recorre el segmento, se reconstruye el índice y se descarta la cola dañada.
+ *
+ * <p>Compactación en segundo plano: cuando la proporción de registros obsoletos supera el umbral se
+ * copian los vivos a un segmento nuevo, que sustituye al anterior con un rename atómico.
+ *
+ * <p>Concurrencia optimista igual que el adaptador JPA: la versión empieza en 0 y sube en cada
+ * save.
+ *
+ * <p>En Hexagonal: Se activa con el perfil "fichero". No escribe en el outbox (estos nodos no
+ * tienen base de datos): los eventos de dominio del pedido se descartan al guardar.
+ */
+@Repository
+@Qualifier("almacenPedidos")
+@Profile("fichero")
+public class MappedFilePedidoRepositoryAdapter implements PedidoRepositoryPort {
+
+  private static final Logger log =
+      LoggerFactory.getLogger(MappedFilePedidoRepositoryAdapter.class);
+
+  private static final byte TIPO_PEDIDO = 1;
+  private static final byte TIPO_BORRADO = 2;
+  // longitud (4) + crc (4) + tipo (1)
+  private static final int CABECERA = 9;
+
+  private final Path segmento;
+  private final Path segmentoCompactando;
+  private final long capacidadInicial;
+  private final boolean sincronizar;
+  private final double umbralBasura;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final ScheduledExecutorService compactador;
+  private final PedidoBinarioCodec codec = new PedidoBinarioCodec();
+
+  // Estado del segmento activo, protegido por lock
+  private FileChannel canal;
+  private MappedByteBuffer mapa;
+  private long capacidad;
+  private int fin;
+  private IndiceOffHeap indice;
+  private long bytesVivos;
+
+  public MappedFilePedidoRepositoryAdapter(
+      @Value("${pedidos.fichero.directorio:./data}") Path directorio,
+      @Value("${pedidos.fichero.capacidad-inicial:64MB}") DataSize capacidadInicial,
+      @Value("${pedidos.fichero.sincronizar:true}") boolean sincronizar,
+      @Value("${pedidos.fichero.compactacion-intervalo:5m}") Duration intervaloCompactacion,
+      @Value("${pedidos.fichero.umbral-basura:0.5}") double umbralBasura)
+      throws IOException {
+    Files.createDirectories(directorio);
+    this.segmento = directorio.resolve("pedidos.seg");
+    this.segmentoCompactando = directorio.resolve("pedidos.seg.compactando");
+    this.capacidadInicial = capacidadInicial.toBytes();
+    this.sincronizar = sincronizar;
+    this.umbralBasura = umbralBasura;
+
+    // Una compactación interrumpida no llegó al rename: el segmento original sigue siendo válido
+    Files.deleteIfExists(segmentoCompactando);
+    abrir();
+    recuperar();
+
+    this.compactador =
+        Executors.newSingleThreadScheduledExecutor(
+            tarea -> {
+              Thread hilo = new Thread(tarea, "compactador-pedidos");
+              hilo.setDaemon(true);
+              return hilo;
+            });
+    long intervalo = intervaloCompactacion.toMillis();
+    compactador.scheduleWithFixedDelay(
+        this::compactarSiHaceFalta, intervalo, intervalo, TimeUnit.MILLISECONDS);
+  }
+
+  /** Búsqueda en el índice off-heap y decodificación directa desde el fichero mapeado */
+  @Override
+  public Optional<Pedido> findById(PedidoId pedidoId) {
+    lock.readLock().lock();
+    try {
+      long offset = buscar(pedidoId);
+      return offset < 0 ? Optional.empty() : Optional.of(codec.decodificar(payload(offset)));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Solo el índice: no lee el segmento más allá de comparar el id */
+  @Override
+  public boolean existsById(PedidoId pedidoId) {
+    lock.readLock().lock();
+    try {
+      return buscar(pedidoId) >= 0;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** El estado está en la cabecera del registro: no se decodifican los items */
+  @Override
+  public Optional<EstadoPedido> findEstadoById(PedidoId pedidoId) {
+    lock.readLock().lock();
+    try {
+      long offset = buscar(pedidoId);
+      return offset < 0 ? Optional.empty() : Optional.of(codec.leerEstado(payload(offset)));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Añade el pedido completo al final del segmento y apunta el índice al registro nuevo
+   *
+   * @throws ConflictoDeConcurrenciaException si el pedido se modificó desde que se leyó
+   */
+  @Override
+  public Pedido save(Pedido pedido) {
+    PedidoId id = pedido.getId();
+    byte[] registro;
+    lock.writeLock().lock();
+    try {
+      long anterior = buscar(id);
+      Long versionActual = anterior < 0 ? null : codec.leerVersion(payload(anterior));
+      if (!Objects.equals(versionActual, pedido.getVersion())) {
+        throw new ConflictoDeConcurrenciaException(
+            "El pedido "
+                + pedido.getId().getValue()
+                + (versionActual == null ? " ya no existe" : " fue modificado por otra operación"));
+      }
+
+      registro = codec.codificar(pedido, versionActual == null ? 0L : versionActual + 1);
+      long offset = anadir(TIPO_PEDIDO, registro);
+      indice.poner(IndiceOffHeap.hash(id.getValue()), offset, o -> esMismoId(o, id));
+      bytesVivos += CABECERA + registro.length - (anterior < 0 ? 0 : tamanoRegistro(anterior));
+    } finally {
+      lock.writeLock().unlock();
+    }
+    pedido.limpiarEventos();
+    return codec.decodificar(ByteBuffer.wrap(registro));
+  }
+
+  /** Quita el pedido del índice y deja constancia en el segmento para la recuperación */
+  @Override
+  public void deleteById(PedidoId pedidoId) {
+    lock.writeLock().lock();
+    try {
+      long anterior =
+          indice.quitar(IndiceOffHeap.hash(pedidoId.getValue()), o -> esMismoId(o, pedidoId));
+      if (anterior >= 0) {
+        bytesVivos -= tamanoRegistro(anterior);
+        anadir(TIPO_BORRADO, codec.codificarId(pedidoId));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // Método de utilidad, igual que en el adaptador JPA
+  public long cantidadPedidos() {
+    lock.readLock().lock();
+    try {
+      return indice.tamano();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @PreDestroy
+  public void cerrar() throws IOException {
+    compactador.shutdownNow();
+    lock.writeLock().lock();
+    try {
+      mapa.force();
+      canal.close();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // ========== SEGMENTO ==========
+
+  private void abrir() throws IOException {
+    canal =
+        FileChannel.open(
+            segmento, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    capacidad = Math.max(canal.size(), capacidadInicial);
+    mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidad);
+  }
+
+  /** Recorre el segmento, reconstruye el índice y corta en el primer registro dañado */
+  private void recuperar() {
+    indice = new IndiceOffHeap(1024);
+    bytesVivos = 0;
+    int pos = 0;
+    boolean colaDanada = false;
+    while (pos + CABECERA <= capacidad) {
+      int longitud = mapa.getInt(pos);
+      if (longitud == 0) {
+        break; // Fin de los datos escritos
+      }
+      if (longitud < 0
+          || pos + CABECERA + (long) longitud > capacidad
+          || mapa.getInt(pos + 4) != crc(pos, longitud)) {
+        colaDanada = true;
+        break;
+      }
+      int offset = pos;
+      // Pedido o marca de borrado: ambos empiezan por la cabecera del codec con el id
+      PedidoId id = codec.leerId(payload(offset));
+      long hash = IndiceOffHeap.hash(id.getValue());
+      long anterior = indice.quitar(hash, o -> esMismoId(o, id));
+      if (anterior >= 0) {
+        bytesVivos -= tamanoRegistro(anterior);
+      }
+      if (mapa.get(pos + 8) == TIPO_PEDIDO) {
+        indice.poner(hash, offset, o -> esMismoId(o, id));
+        bytesVivos += CABECERA + longitud;
+      }
+      pos += CABECERA + longitud;
+    }
+    fin = pos;
+
+    if (colaDanada) {
+      // Restos de una escritura interrumpida: se borran para que no parezcan registros
+      log.warn("Segmento {} dañado a partir del byte {}, se descarta la cola", segmento, fin);
+      for (int i = fin; i < capacidad; i++) {
+        mapa.put(i, (byte) 0);
+      }
+      mapa.force();
+    }
+    log.info("Segmento {}: {} pedidos recuperados ({} bytes)", segmento, indice.tamano(), fin);
+  }
+
+  /** Escribe un registro al final; la longitud se publica la última */
+  private long anadir(byte tipo, byte[] payload) {
+    int tamano = CABECERA + payload.length;
+    if (fin + (long) tamano > capacidad) {
+      crecer(tamano);
+    }
+    int offset = fin;
+    mapa.put(offset + 8, tipo);
+    mapa.put(offset + CABECERA, payload);
+    mapa.putInt(offset + 4, crc(offset, payload.length));
+    mapa.putInt(offset, payload.length);
+    if (sincronizar) {
+      mapa.force(offset, tamano);
+    }
+    fin += tamano;
+    return offset;
+  }
+
+  /** Duplica el tamaño mapeado (el fichero crece con el mapeo) */
+  private void crecer(int necesario) {
+    long nuevaCapacidad = Math.max(capacidad * 2, fin + (long) necesario);
+    if (nuevaCapacidad > Integer.MAX_VALUE) {
+      // Un MappedByteBuffer direcciona como mucho 2 GB
+      throw new IllegalStateException("Segmento de pedidos lleno: " + segmento);
+    }
+    try {
+      mapa.force();
+      mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, nuevaCapacidad);
+      capacidad = nuevaCapacidad;
+    } catch (IOException e) {
+      throw new UncheckedIOException("No se pudo ampliar " + segmento, e);
+    }
+  }
+
+  // ========== COMPACTACIÓN ==========
+
+  private void compactarSiHaceFalta() {
+    try {
+      compactar();
+    } catch (Exception e) {
+      // El segmento actual sigue siendo válido; se reintenta en el siguiente intervalo
+      log.error("Fallo compactando {}", segmento, e);
+    }
+  }
+
+  /**
+   * Copia los registros vivos a un segmento nuevo y lo sustituye con un rename atómico
+   *
+   * <p>Se hace con el lock de escritura: en nodos de tienda el volumen es pequeño y la copia es un
+   * memcpy entre ficheros mapeados.
+   */
+  void compactar() throws IOException {
+    lock.writeLock().lock();
+    try {
+      if (fin == 0 || bytesVivos >= fin * (1 - umbralBasura)) {
+        return;
+      }
+      long inicio = System.nanoTime();
+      long nuevaCapacidad = Math.max(capacidadInicial, bytesVivos + bytesVivos / 2);
+      FileChannel nuevoCanal =
+          FileChannel.open(
+              segmentoCompactando,
+              StandardOpenOption.CREATE_NEW,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE);
+      MappedByteBuffer nuevoMapa;
+      IndiceOffHeap nuevoIndice = new IndiceOffHeap(indice.tamano() * 2);
+      int[] pos = {0};
+      try {
+        nuevoMapa = nuevoCanal.map(FileChannel.MapMode.READ_WRITE, 0, nuevaCapacidad);
+        indice.recorrer(
+            offset -> {
+              int tamano = tamanoRegistro(offset);
+              nuevoMapa.put(pos[0], mapa, (int) offset, tamano);
+              // Los ids del índice son únicos: no hace falta comparar al insertar
+              PedidoId id = codec.leerId(payload(offset));
+              nuevoIndice.poner(IndiceOffHeap.hash(id.getValue()), pos[0], o -> false);
+              pos[0] += tamano;
+            });
+        nuevoMapa.force();
+        Files.move(
+            segmentoCompactando,
+            segmento,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (IOException | RuntimeException e) {
+        nuevoCanal.close();
+        Files.deleteIfExists(segmentoCompactando);
+        throw e;
+      }
+      canal.close();
+      canal = nuevoCanal;
+      mapa = nuevoMapa;
+      capacidad = nuevaCapacidad;
+      indice = nuevoIndice;
+      log.info(
+          "Segmento {} compactado: {} -> {} bytes en {} ms",
+          segmento,
+          fin,
+          pos[0],
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+      fin = pos[0];
+      bytesVivos = fin;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // ========== AUXILIARES ==========
+
+  private long buscar(PedidoId id) {
+    return indice.buscar(IndiceOffHeap.hash(id.getValue()), o -> esMismoId(o, id));
+  }
+
+  /** Compara el id del registro con el buscado sin decodificarlo */
+  private boolean esMismoId(long offset, PedidoId id) {
+    return codec.mismoId(payload(offset), id);
+  }
+
+  private ByteBuffer payload(long offset) {
+    return mapa.slice((int) offset + CABECERA, mapa.getInt((int) offset));
+  }
+
+  private int tamanoRegistro(long offset) {
+    return CABECERA + mapa.getInt((int) offset);
+  }
+
+  /** CRC de tipo + payload */
+  private int crc(int offset, int longitud) {
+    CRC32 crc = new CRC32();
+    crc.update(mapa.slice(offset + 8, 1 + longitud));
+    return (int) crc.getValue();
+  }
+}
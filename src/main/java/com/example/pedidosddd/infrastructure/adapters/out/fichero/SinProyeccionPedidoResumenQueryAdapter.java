@@ -0,0 +1,25 @@
+package com.example.pedidosddd.infrastructure.adapters.out.fichero;
+
+import com.example.pedidosddd.application.ports.in.ConsultarResumenPedidoUseCase.ResumenPedido;
+import com.example.pedidosddd.application.ports.out.PedidoResumenQueryPort;
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.util.Optional;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * ADAPTADOR DE SALIDA - Resumen de pedidos con el almacén en fichero: no hay proyección
+ *
+ * <p>MappedFilePedidoRepositoryAdapter no escribe pedido_resumen, así que consultarla sería un
+ * viaje a la base de datos que nunca encuentra nada. Siempre vacío: la lectura va directa al
+ * agregado, que se decodifica del fichero mapeado sin pasar por Hibernate.
+ */
+@Component
+@Profile("fichero")
+public class SinProyeccionPedidoResumenQueryAdapter implements PedidoResumenQueryPort {
+
+  @Override
+  public Optional<ResumenPedido> buscarResumen(PedidoId pedidoId) {
+    return Optional.empty();
+  }
+}
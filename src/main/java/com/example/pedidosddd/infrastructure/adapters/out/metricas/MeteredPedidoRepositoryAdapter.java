@@ -0,0 +1,106 @@
+package com.example.pedidosddd.infrastructure.adapters.out.metricas;
+
+import com.example.pedidosddd.application.ports.out.PedidoRepositoryPort;
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * ADAPTADOR DE SALIDA - Decorador que mide el almacén real
+ *
+ * <p>¿Qué hace? Envuelve el PedidoRepositoryPort del almacén (JPA, event store o fichero) y
+ * publica:
+ *
+ * <ul>
+ *   <li>pedidos.repositorio{operacion, almacen, exception}: latencia de cada operación del puerto
+ *   <li>pedidos.items{operacion}: líneas por pedido leído o guardado
+ * </ul>
+ *
+ * <p>Se coloca debajo de la caché: mide solo los accesos que llegan de verdad al almacén, los
+ * aciertos de caché ya tienen sus propias métricas (cache.gets).
+ */
+public class MeteredPedidoRepositoryAdapter implements PedidoRepositoryPort {
+
+  private final PedidoRepositoryPort delegate;
+  private final MeterRegistry meterRegistry;
+  private final String almacen;
+  private final DistributionSummary itemsLeidos;
+  private final DistributionSummary itemsGuardados;
+
+  public MeteredPedidoRepositoryAdapter(
+      PedidoRepositoryPort delegate, String almacen, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.meterRegistry = meterRegistry;
+    this.almacen = almacen;
+    this.itemsLeidos = items("findById");
+    this.itemsGuardados = items("save");
+  }
+
+  @Override
+  public Optional<Pedido> findById(PedidoId pedidoId) {
+    Optional<Pedido> encontrado = medir("findById", () -> delegate.findById(pedidoId));
+    encontrado.ifPresent(pedido -> itemsLeidos.record(pedido.getItems().size()));
+    return encontrado;
+  }
+
+  @Override
+  public Pedido save(Pedido pedido) {
+    Pedido guardado = medir("save", () -> delegate.save(pedido));
+    itemsGuardados.record(guardado.getItems().size());
+    return guardado;
+  }
+
+  @Override
+  public void deleteById(PedidoId pedidoId) {
+    medir(
+        "deleteById",
+        () -> {
+          delegate.deleteById(pedidoId);
+          return null;
+        });
+  }
+
+  @Override
+  public boolean existsById(PedidoId pedidoId) {
+    return medir("existsById", () -> delegate.existsById(pedidoId));
+  }
+
+  @Override
+  public Optional<EstadoPedido> findEstadoById(PedidoId pedidoId) {
+    return medir("findEstadoById", () -> delegate.findEstadoById(pedidoId));
+  }
+
+  private <T> T medir(String operacion, Supplier<T> accion) {
+    Timer.Sample muestra = Timer.start(meterRegistry);
+    String exception = "none";
+    try {
+      return accion.get();
+    } catch (RuntimeException e) {
+      exception = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      muestra.stop(
+          Timer.builder("pedidos.repositorio")
+              .description("Latencia del almacén de pedidos")
+              .tag("operacion", operacion)
+              .tag("almacen", almacen)
+              .tag("exception", exception)
+              .publishPercentileHistogram()
+              .register(meterRegistry));
+    }
+  }
+
+  private DistributionSummary items(String operacion) {
+    return DistributionSummary.builder("pedidos.items")
+        .description("Líneas por pedido")
+        .baseUnit("items")
+        .tag("operacion", operacion)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,145 @@
+package com.example.pedidosddd.infrastructure.adapters.out.particiones;
+
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * ENRUTADOR - Reparte los pedidos entre N particiones del almacén por hash del PedidoId
+ *
+ * <p>La partición activa se guarda en el hilo: ParticionesDataSource la consulta al pedir una
+ * conexión, así que hay que fijarla (enParticion) antes de que empiece la transacción, por fuera
+ * del proxy @Transactional del adaptador. Sin partición fijada se usa la 0, que guarda además lo
+ * que no se reparte (catálogo de productos).
+ *
+ * <p>Las lecturas que abarcan todas las particiones (listados, recuentos) se lanzan en paralelo con
+ * enTodas, en un pool propio de hilos daemon.
+ *
+ * <p>El reparto depende de la cantidad de particiones: cambiarla con datos guardados obliga a
+ * redistribuirlos.
+ */
+public final class EnrutadorParticiones implements AutoCloseable {
+
+  private static final ThreadLocal<Integer> ACTUAL = new ThreadLocal<>();
+
+  private final int cantidad;
+  // null con una sola partición: todo se ejecuta en el hilo que llama
+  private final ExecutorService ejecutor;
+
+  public EnrutadorParticiones(int cantidad, int hilos) {
+    if (cantidad < 1) {
+      throw new IllegalArgumentException("Debe haber al menos una partición");
+    }
+    this.cantidad = cantidad;
+    this.ejecutor = cantidad > 1 ? Executors.newFixedThreadPool(hilos, hilosConNombre()) : null;
+  }
+
+  public int cantidad() {
+    return cantidad;
+  }
+
+  /**
+   * Partición de un pedido: estable entre arranques (UUID.hashCode está especificado). Sobre el
+   * UUID y no sobre el texto: no depende de cómo se escribió el id y mezcla los bits aleatorios
+   */
+  public int particion(PedidoId pedidoId) {
+    return Math.floorMod(pedidoId.toUuid().hashCode(), cantidad);
+  }
+
+  /** Partición fijada en este hilo; null si no hay ninguna (se usa la 0) */
+  public Integer particionActual() {
+    return ACTUAL.get();
+  }
+
+  /** Ejecuta la operación con la partición fijada y deja la anterior al terminar */
+  public <T> T enParticion(int particion, Supplier<T> operacion) {
+    if (particion < 0 || particion >= cantidad) {
+      throw new IllegalArgumentException("Partición inexistente: " + particion);
+    }
+    Integer anterior = ACTUAL.get();
+    ACTUAL.set(particion);
+    try {
+      return operacion.get();
+    } finally {
+      if (anterior == null) {
+        ACTUAL.remove();
+      } else {
+        ACTUAL.set(anterior);
+      }
+    }
+  }
+
+  public void enParticion(int particion, Runnable operacion) {
+    enParticion(
+        particion,
+        () -> {
+          operacion.run();
+          return null;
+        });
+  }
+
+  public <T> T enParticionDe(PedidoId pedidoId, Supplier<T> operacion) {
+    return enParticion(particion(pedidoId), operacion);
+  }
+
+  /**
+   * Ejecuta la operación una vez en cada partición, en paralelo, y devuelve los resultados en orden
+   * de partición
+   *
+   * <p>Si alguna falla se cancelan las demás y se propaga su excepción.
+   */
+  public <T> List<T> enTodas(Supplier<T> operacion) {
+    List<T> resultados = new ArrayList<>(cantidad);
+    if (ejecutor == null) {
+      resultados.add(enParticion(0, operacion));
+      return resultados;
+    }
+    List<Future<T>> pendientes = new ArrayList<>(cantidad);
+    for (int particion = 0; particion < cantidad; particion++) {
+      int destino = particion;
+      pendientes.add(ejecutor.submit(() -> enParticion(destino, operacion)));
+    }
+    try {
+      for (Future<T> pendiente : pendientes) {
+        resultados.add(pendiente.get());
+      }
+      return resultados;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrumpido esperando a las particiones", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException causa) {
+        throw causa;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      pendientes.forEach(pendiente -> pendiente.cancel(true));
+    }
+  }
+
+  @Override
+  public void close() {
+    if (ejecutor != null) {
+      ejecutor.shutdownNow();
+    }
+  }
+
+  private static ThreadFactory hilosConNombre() {
+    AtomicInteger contador = new AtomicInteger();
+    return tarea -> {
+      Thread hilo = new Thread(tarea, "pedidos-particiones-" + contador.incrementAndGet());
+      hilo.setDaemon(true);
+      return hilo;
+    };
+  }
+}
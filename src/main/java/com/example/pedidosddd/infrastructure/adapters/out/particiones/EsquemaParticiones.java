@@ -0,0 +1,79 @@
+package com.example.pedidosddd.infrastructure.adapters.out.particiones;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.relational.SchemaManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * ESQUEMA - Crea las tablas en las particiones 1..N-1
+ *
+ * <p>spring.jpa.hibernate.ddl-auto solo actúa sobre la conexión por defecto (partición 0). Para el
+ * resto se exportan las mismas tablas con el SchemaManager de Hibernate, con la partición fijada,
+ * si aún no existen: pensado para bases nuevas (H2 en memoria, entornos de prueba). En producción
+ * cada partición se migra por su cuenta.
+ *
+ * <p>Las secuencias pooled se reparten por rangos: el optimizador de Hibernate guarda un único
+ * bloque de ids en memoria para todas las particiones, así que cada partición numera desde
+ * particion * 2^40 y un id de item o evento nunca se repite entre particiones.
+ */
+public final class EsquemaParticiones {
+
+  private static final Logger log = LoggerFactory.getLogger(EsquemaParticiones.class);
+
+  // PedidoItemEntity y PedidoEventoEntity
+  private static final List<String> SECUENCIAS = List.of("pedido_items_seq", "pedido_eventos_seq");
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final JdbcTemplate jdbc;
+  private final EnrutadorParticiones enrutador;
+
+  public EsquemaParticiones(
+      EntityManagerFactory entityManagerFactory,
+      DataSource dataSource,
+      EnrutadorParticiones enrutador) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.jdbc = new JdbcTemplate(dataSource);
+    this.enrutador = enrutador;
+  }
+
+  /** Primer id de secuencia de una partición (la 0 conserva el inicio normal) */
+  public static long inicioSecuencias(int particion) {
+    return particion == 0 ? 1 : (long) particion << 40;
+  }
+
+  public void crear() {
+    SchemaManager esquema = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+    for (int particion = 1; particion < enrutador.cantidad(); particion++) {
+      int destino = particion;
+      enrutador.enParticion(
+          destino,
+          () -> {
+            if (existenTablas()) {
+              log.info("Partición {}: tablas ya creadas", destino);
+              return;
+            }
+            esquema.exportMappedObjects(true);
+            long inicio = inicioSecuencias(destino);
+            for (String secuencia : SECUENCIAS) {
+              jdbc.execute("ALTER SEQUENCE " + secuencia + " RESTART WITH " + inicio);
+            }
+            log.info("Partición {}: tablas creadas, secuencias desde {}", destino, inicio);
+          });
+    }
+  }
+
+  private boolean existenTablas() {
+    try {
+      jdbc.queryForObject("SELECT COUNT(*) FROM pedidos WHERE 1 = 0", Long.class);
+      return true;
+    } catch (DataAccessException e) {
+      return false;
+    }
+  }
+}
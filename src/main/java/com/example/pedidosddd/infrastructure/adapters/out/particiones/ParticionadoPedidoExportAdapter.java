@@ -0,0 +1,33 @@
+package com.example.pedidosddd.infrastructure.adapters.out.particiones;
+
+import com.example.pedidosddd.application.ports.out.PedidoExportPort;
+import com.example.pedidosddd.domain.model.Pedido;
+import java.util.function.Consumer;
+
+/**
+ * ADAPTADOR DE SALIDA - Exportación partición a partición
+ *
+ * <p>Secuencial a propósito: el consumidor escribe en un único stream y cada partición ya se
+ * recorre con su propio cursor en memoria constante. El orden de ID se mantiene dentro de cada
+ * partición, no entre ellas.
+ */
+public class ParticionadoPedidoExportAdapter implements PedidoExportPort {
+
+  private final PedidoExportPort delegate;
+  private final EnrutadorParticiones enrutador;
+
+  public ParticionadoPedidoExportAdapter(
+      PedidoExportPort delegate, EnrutadorParticiones enrutador) {
+    this.delegate = delegate;
+    this.enrutador = enrutador;
+  }
+
+  @Override
+  public long recorrerPedidos(Consumer<Pedido> consumidor) {
+    long exportados = 0;
+    for (int particion = 0; particion < enrutador.cantidad(); particion++) {
+      exportados += enrutador.enParticion(particion, () -> delegate.recorrerPedidos(consumidor));
+    }
+    return exportados;
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.pedidosddd.infrastructure.adapters.out.particiones;
+
+import com.example.pedidosddd.application.ports.in.ListarPedidosUseCase.Cursor;
+import com.example.pedidosddd.application.ports.in.ListarPedidosUseCase.ListarPedidosQuery;
+import com.example.pedidosddd.application.ports.in.ListarPedidosUseCase.PaginaPedidos;
+import com.example.pedidosddd.application.ports.out.PedidoQueryPort;
+import com.example.pedidosddd.domain.model.Pedido;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * ADAPTADOR DE SALIDA - Listados sobre todas las particiones
+ *
+ * <p>La misma consulta keyset se lanza en paralelo en cada partición; cada una devuelve como mucho
+ * una página a partir del cursor, así que la página global son las primeras filas de la mezcla en
+ * orden (fechaActualizacion, id) descendente. El cursor no cambia: sirve igual en todas.
+ */
+public class ParticionadoPedidoQueryAdapter implements PedidoQueryPort {
+
+  // Mismo orden que la consulta: el id como texto (UUID en minúsculas) ordena igual que en la base
+  private static final Comparator<Pedido> MAS_RECIENTE_PRIMERO =
+      Comparator.comparing(Pedido::getFechaActualizacion)
+          .thenComparing(pedido -> pedido.getId().getValue())
+          .reversed();
+
+  private final PedidoQueryPort delegate;
+  private final EnrutadorParticiones enrutador;
+
+  public ParticionadoPedidoQueryAdapter(PedidoQueryPort delegate, EnrutadorParticiones enrutador) {
+    this.delegate = delegate;
+    this.enrutador = enrutador;
+  }
+
+  @Override
+  public PaginaPedidos buscarPedidos(ListarPedidosQuery query) {
+    List<PaginaPedidos> paginas = enrutador.enTodas(() -> delegate.buscarPedidos(query));
+
+    List<Pedido> mezcla = new ArrayList<>();
+    boolean haySiguiente = false;
+    for (PaginaPedidos pagina : paginas) {
+      mezcla.addAll(pagina.pedidos());
+      haySiguiente |= pagina.siguiente() != null;
+    }
+    mezcla.sort(MAS_RECIENTE_PRIMERO);
+    if (mezcla.size() > query.tamano()) {
+      mezcla = mezcla.subList(0, query.tamano());
+      haySiguiente = true;
+    }
+    if (mezcla.isEmpty()) {
+      return new PaginaPedidos(List.of(), null);
+    }
+
+    Pedido ultimo = mezcla.get(mezcla.size() - 1);
+    Cursor siguiente =
+        haySiguiente ? new Cursor(ultimo.getFechaActualizacion(), ultimo.getId()) : null;
+    return new PaginaPedidos(mezcla, siguiente);
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.pedidosddd.infrastructure.adapters.out.particiones;
+
+import com.example.pedidosddd.application.ports.out.PedidoRepositoryPort;
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * ADAPTADOR DE SALIDA - Decorador que enruta cada operación a la partición de su pedido
+ *
+ * <p>Va justo encima del almacén real: fija la partición del PedidoId antes de entrar en su
+ * proxy @Transactional, así la transacción (pedido, items, outbox y pedido_resumen) se abre sobre
+ * la base de datos de esa partición. Un pedido nunca se reparte entre dos.
+ */
+public class ParticionadoPedidoRepositoryAdapter implements PedidoRepositoryPort {
+
+  private final PedidoRepositoryPort delegate;
+  private final EnrutadorParticiones enrutador;
+
+  public ParticionadoPedidoRepositoryAdapter(
+      PedidoRepositoryPort delegate, EnrutadorParticiones enrutador) {
+    this.delegate = delegate;
+    this.enrutador = enrutador;
+  }
+
+  @Override
+  public Optional<Pedido> findById(PedidoId pedidoId) {
+    return enrutador.enParticionDe(pedidoId, () -> delegate.findById(pedidoId));
+  }
+
+  @Override
+  public Pedido save(Pedido pedido) {
+    return enrutador.enParticionDe(pedido.getId(), () -> delegate.save(pedido));
+  }
+
+  @Override
+  public void deleteById(PedidoId pedidoId) {
+    enrutador.enParticion(enrutador.particion(pedidoId), () -> delegate.deleteById(pedidoId));
+  }
+
+  @Override
+  public boolean existsById(PedidoId pedidoId) {
+    return enrutador.enParticionDe(pedidoId, () -> delegate.existsById(pedidoId));
+  }
+
+  @Override
+  public Optional<EstadoPedido> findEstadoById(PedidoId pedidoId) {
+    return enrutador.enParticionDe(pedidoId, () -> delegate.findEstadoById(pedidoId));
+  }
+
+  /** Lectura y guardado en la misma partición, sin volver a calcularla */
+  @Override
+  public Optional<Pedido> modificar(PedidoId pedidoId, Consumer<Pedido> modificacion) {
+    return enrutador.enParticionDe(pedidoId, () -> delegate.modificar(pedidoId, modificacion));
+  }
+}
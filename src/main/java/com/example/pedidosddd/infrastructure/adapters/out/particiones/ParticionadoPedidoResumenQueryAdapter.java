@@ -0,0 +1,28 @@
+package com.example.pedidosddd.infrastructure.adapters.out.particiones;
+
+import com.example.pedidosddd.application.ports.in.ConsultarResumenPedidoUseCase.ResumenPedido;
+import com.example.pedidosddd.application.ports.out.PedidoResumenQueryPort;
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.util.Optional;
+
+/**
+ * ADAPTADOR DE SALIDA - pedido_resumen en la partición del pedido
+ *
+ * <p>La proyección se escribe en la transacción del pedido, así que vive en su misma partición.
+ */
+public class ParticionadoPedidoResumenQueryAdapter implements PedidoResumenQueryPort {
+
+  private final PedidoResumenQueryPort delegate;
+  private final EnrutadorParticiones enrutador;
+
+  public ParticionadoPedidoResumenQueryAdapter(
+      PedidoResumenQueryPort delegate, EnrutadorParticiones enrutador) {
+    this.delegate = delegate;
+    this.enrutador = enrutador;
+  }
+
+  @Override
+  public Optional<ResumenPedido> buscarResumen(PedidoId pedidoId) {
+    return enrutador.enParticionDe(pedidoId, () -> delegate.buscarResumen(pedidoId));
+  }
+}
@@ -0,0 +1,57 @@
+package com.example.pedidosddd.infrastructure.adapters.out.particiones;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DATASOURCE ENRUTADO - Una base de datos (o esquema) por partición
+ *
+ * <p>Cada getConnection() se resuelve contra la partición fijada en el hilo por
+ * EnrutadorParticiones; sin partición, contra la 0. Hibernate solo ve un DataSource, así que las
+ * entidades, repositorios y transacciones no cambian.
+ *
+ * <p>Los pools de cada partición no son beans: close() los cierra al parar el contexto.
+ */
+public class ParticionesDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+  private final EnrutadorParticiones enrutador;
+  private final List<DataSource> particiones;
+
+  public ParticionesDataSource(EnrutadorParticiones enrutador, List<DataSource> particiones) {
+    if (particiones.size() != enrutador.cantidad()) {
+      throw new IllegalArgumentException(
+          "Hay "
+              + particiones.size()
+              + " DataSource para "
+              + enrutador.cantidad()
+              + " particiones");
+    }
+    this.enrutador = enrutador;
+    this.particiones = List.copyOf(particiones);
+    Map<Object, Object> destinos = new HashMap<>();
+    for (int particion = 0; particion < particiones.size(); particion++) {
+      destinos.put(particion, particiones.get(particion));
+    }
+    setTargetDataSources(destinos);
+    setDefaultTargetDataSource(particiones.get(0));
+    // Una clave sin DataSource es un error de enrutado, no se manda a la partición 0
+    setLenientFallback(false);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return enrutador.particionActual();
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (DataSource particion : particiones) {
+      if (particion instanceof AutoCloseable cerrable) {
+        cerrable.close();
+      }
+    }
+  }
+}
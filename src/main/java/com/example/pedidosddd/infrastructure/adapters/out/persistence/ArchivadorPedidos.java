@@ -0,0 +1,136 @@
+package com.example.pedidosddd.infrastructure.adapters.out.persistence;
+
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.infrastructure.adapters.out.archivo.ArchivoPedidos;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.EnrutadorParticiones;
+import com.example.pedidosddd.infrastructure.adapters.out.resumen.PedidoResumenProyector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * ARCHIVADOR - Saca de pedidos/pedido_items los pedidos COMPLETADO/CANCELADO antiguos
+ *
+ * <p>Un pedido terminado ya no cambia (Pedido.completarPedido/cancelarPedido), pero sigue ocupando
+ * filas e índices de las tablas que escriben los carritos activos. Cada pasada mueve los que llevan
+ * más de pedidos.archivo.antiguedad sin tocarse a ArchivoPedidos, por lotes: en cada transacción se
+ * bloquean hasta N cabeceras (SKIP LOCKED), se cargan sus items con una consulta, se insertan en el
+ * archivo y se borran de pedidos, pedido_items y pedido_resumen. Un lote lleno indica que hay más,
+ * así que se sigue sin esperar al siguiente intervalo.
+ *
+ * <p>JpaPedidoRepositoryAdapter lee del archivo los pedidos que no encuentra, así que para los use
+ * cases el pedido sigue ahí. Con el almacén particionado se archiva partición a partición.
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.archivo.habilitado", havingValue = "true")
+public class ArchivadorPedidos {
+
+  private static final Logger log = LoggerFactory.getLogger(ArchivadorPedidos.class);
+
+  private static final List<EstadoPedidoEntity> TERMINADOS =
+      List.of(EstadoPedidoEntity.COMPLETADO, EstadoPedidoEntity.CANCELADO);
+
+  private final JpaPedidoRepository jpaRepository;
+  private final PedidoMapper mapper;
+  private final ArchivoPedidos archivo;
+  private final PedidoResumenProyector resumenProyector;
+  private final TransactionTemplate transaccion;
+  private final EnrutadorParticiones enrutador;
+  private final Duration antiguedad;
+  private final int tamanoLote;
+  private final Counter archivados;
+
+  public ArchivadorPedidos(
+      JpaPedidoRepository jpaRepository,
+      PedidoMapper mapper,
+      ArchivoPedidos archivo,
+      PedidoResumenProyector resumenProyector,
+      TransactionTemplate transaccion,
+      EnrutadorParticiones enrutador,
+      MeterRegistry meterRegistry,
+      @Value("${pedidos.archivo.antiguedad:90d}") Duration antiguedad,
+      @Value("${pedidos.archivo.tamano-lote:500}") int tamanoLote) {
+    this.jpaRepository = jpaRepository;
+    this.mapper = mapper;
+    this.archivo = archivo;
+    this.resumenProyector = resumenProyector;
+    this.transaccion = transaccion;
+    this.enrutador = enrutador;
+    this.antiguedad = antiguedad;
+    this.tamanoLote = tamanoLote;
+    this.archivados =
+        Counter.builder("pedidos.archivados")
+            .description("Pedidos terminados movidos a pedidos_archivo")
+            .register(meterRegistry);
+  }
+
+  @Scheduled(
+      initialDelayString = "${pedidos.archivo.intervalo-ms:3600000}",
+      fixedDelayString = "${pedidos.archivo.intervalo-ms:3600000}")
+  public void archivar() {
+    LocalDateTime limite = LocalDateTime.now().minus(antiguedad);
+    for (int particion = 0; particion < enrutador.cantidad(); particion++) {
+      int destino = particion;
+      try {
+        long movidos =
+            enrutador.enParticion(
+                destino,
+                () -> {
+                  long total = 0;
+                  int lote;
+                  do {
+                    lote = archivarLote(limite);
+                    total += lote;
+                  } while (lote == tamanoLote);
+                  return total;
+                });
+        if (movidos > 0) {
+          log.info(
+              "Archivados {} pedidos anteriores a {} (partición {})", movidos, limite, destino);
+        }
+      } catch (RuntimeException e) {
+        // Lo que no se movió sigue en pedidos: se reintenta en el siguiente intervalo
+        log.warn("No se pudo archivar (partición {}), se reintentará: {}", destino, e.getMessage());
+      }
+    }
+  }
+
+  /** Mueve un lote en una sola transacción; devuelve cuántos pedidos archivó */
+  int archivarLote(LocalDateTime limite) {
+    Integer movidos =
+        transaccion.execute(
+            estado -> {
+              List<PedidoEntity> lote =
+                  jpaRepository.siguientesParaArchivar(
+                      TERMINADOS, limite, PageRequest.of(0, tamanoLote));
+              if (lote.isEmpty()) {
+                return 0;
+              }
+              List<UUID> ids = lote.stream().map(PedidoEntity::getId).toList();
+              // Mismas instancias del contexto de persistencia, ahora con items
+              LocalDateTime ahora = LocalDateTime.now();
+              for (PedidoEntity entity : jpaRepository.findConItemsByIdIn(ids)) {
+                Pedido pedido = mapper.toDomain(entity);
+                archivo.archivar(pedido, ahora);
+                resumenProyector.eliminar(pedido.getId());
+              }
+              jpaRepository.borrarItemsPorPedidos(ids);
+              jpaRepository.borrarPorIds(ids);
+              return lote.size();
+            });
+    int total = movidos != null ? movidos : 0;
+    archivados.increment(total);
+    return total;
+  }
+}
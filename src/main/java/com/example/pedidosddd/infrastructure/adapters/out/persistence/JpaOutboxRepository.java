@@ -0,0 +1,31 @@
+package com.example.pedidosddd.infrastructure.adapters.out.persistence;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+/** REPOSITORIO JPA - Tabla outbox_eventos */
+public interface JpaOutboxRepository extends JpaRepository<OutboxEventoEntity, Long> {
+
+  /**
+   * Siguiente lote de eventos en orden de registro, bloqueado para este relay
+   *
+   * <p>lock.timeout = -2 es SKIP LOCKED en Hibernate: si hay varias instancias, cada una se lleva
+   * filas distintas en lugar de esperar a las demás.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query("SELECT o FROM OutboxEventoEntity o ORDER BY o.id")
+  List<OutboxEventoEntity> siguienteLote(Pageable lote);
+
+  @Modifying
+  @Query("DELETE FROM OutboxEventoEntity o WHERE o.id IN :ids")
+  int borrarPorIds(@Param("ids") List<Long> ids);
+}
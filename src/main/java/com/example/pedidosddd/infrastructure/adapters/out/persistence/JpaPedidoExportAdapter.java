@@ -0,0 +1,92 @@
+package com.example.pedidosddd.infrastructure.adapters.out.persistence;
+
+import com.example.pedidosddd.application.ports.out.PedidoExportPort;
+import com.example.pedidosddd.domain.model.Pedido;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ADAPTADOR DE SALIDA - Recorrido completo de pedidos con un cursor JDBC
+ *
+ * <p>Una sola consulta pedidos LEFT JOIN pedido_items ordenada por pedido, leída con
+ * ScrollableResults (FORWARD_ONLY + fetch size): el driver trae las filas por bloques y las filas
+ * son escalares, así que el contexto de persistencia no crece. Las filas consecutivas del mismo
+ * pedido se agrupan en un PedidoEntity transitorio y se convierten con PedidoMapper, igual que en
+ * findById.
+ */
+@Repository
+public class JpaPedidoExportAdapter implements PedidoExportPort {
+
+  // Filas que el driver trae por viaje (en PostgreSQL solo aplica dentro de una transacción)
+  private static final int TAMANO_FETCH = 1000;
+
+  private static final String CONSULTA =
+      "SELECT p.id, p.estado, p.fechaCreacion, p.fechaActualizacion, p.total, p.version,"
+          + " i.productoId, i.nombreProducto, i.cantidad, i.precioUnitario"
+          + " FROM PedidoEntity p LEFT JOIN p.items i"
+          + " ORDER BY p.id, i.id";
+
+  private final EntityManager entityManager;
+  private final PedidoMapper mapper;
+
+  public JpaPedidoExportAdapter(EntityManager entityManager, PedidoMapper mapper) {
+    this.entityManager = entityManager;
+    this.mapper = mapper;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public long recorrerPedidos(Consumer<Pedido> consumidor) {
+    Session session = entityManager.unwrap(Session.class);
+    long exportados = 0;
+    try (ScrollableResults<Object[]> filas =
+        session
+            .createSelectionQuery(CONSULTA, Object[].class)
+            .setFetchSize(TAMANO_FETCH)
+            .setReadOnly(true)
+            .scroll(ScrollMode.FORWARD_ONLY)) {
+
+      PedidoEntity actual = null;
+      while (filas.next()) {
+        Object[] fila = filas.get();
+        UUID id = (UUID) fila[0];
+
+        // Cambio de pedido: el anterior ya está completo
+        if (actual == null || !actual.getId().equals(id)) {
+          if (actual != null) {
+            consumidor.accept(mapper.toDomain(actual));
+            exportados++;
+          }
+          actual =
+              new PedidoEntity(
+                  id,
+                  (EstadoPedidoEntity) fila[1],
+                  (LocalDateTime) fila[2],
+                  (LocalDateTime) fila[3]);
+          actual.setTotal((BigDecimal) fila[4]);
+          actual.setVersion((Long) fila[5]);
+        }
+
+        // LEFT JOIN: un pedido sin items trae una fila con columnas de item a null
+        if (fila[6] != null) {
+          actual.addItem(
+              new PedidoItemEntity(
+                  (String) fila[6], (String) fila[7], (Integer) fila[8], (BigDecimal) fila[9]));
+        }
+      }
+      if (actual != null) {
+        consumidor.accept(mapper.toDomain(actual));
+        exportados++;
+      }
+    }
+    return exportados;
+  }
+}
@@ -0,0 +1,117 @@
+package com.example.pedidosddd.infrastructure.adapters.out.persistence;
+
+import com.example.pedidosddd.application.ports.in.ListarPedidosUseCase.Cursor;
+import com.example.pedidosddd.application.ports.in.ListarPedidosUseCase.ListarPedidosQuery;
+import com.example.pedidosddd.application.ports.in.ListarPedidosUseCase.PaginaPedidos;
+import com.example.pedidosddd.application.ports.out.PedidoQueryPort;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ADAPTADOR DE SALIDA - Listados de pedidos con JPA
+ *
+ * <p>Una página cuesta exactamente 2 consultas:
+ *
+ * <ol>
+ *   <li>Cabeceras: keyset sobre (fecha_actualizacion, id), apoyada en los índices de PedidoEntity
+ *   <li>Items de todos los pedidos de la página con un único IN (...)
+ * </ol>
+ *
+ * <p>Cargar PedidoEntity directamente dispararía la carga de items de cada pedido por separado
+ * (N+1), por eso las cabeceras se leen como proyección.
+ */
+@Repository
+public class JpaPedidoQueryAdapter implements PedidoQueryPort {
+
+  private final EntityManager entityManager;
+  private final PedidoMapper mapper;
+
+  public JpaPedidoQueryAdapter(EntityManager entityManager, PedidoMapper mapper) {
+    this.entityManager = entityManager;
+    this.mapper = mapper;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public PaginaPedidos buscarPedidos(ListarPedidosQuery query) {
+    // 1. Cabeceras de la página (+1 fila para saber si hay siguiente)
+    List<PedidoCabecera> cabeceras = buscarCabeceras(query);
+    boolean haySiguiente = cabeceras.size() > query.tamano();
+    if (haySiguiente) {
+      cabeceras = cabeceras.subList(0, query.tamano());
+    }
+    if (cabeceras.isEmpty()) {
+      return new PaginaPedidos(List.of(), null);
+    }
+
+    // 2. Items de toda la página en una sola consulta
+    Map<UUID, List<PedidoItemEntity>> itemsPorPedido = buscarItems(cabeceras);
+
+    List<Pedido> pedidos = new ArrayList<>(cabeceras.size());
+    for (PedidoCabecera cabecera : cabeceras) {
+      pedidos.add(mapper.toDomain(cabecera, itemsPorPedido.getOrDefault(cabecera.id(), List.of())));
+    }
+
+    PedidoCabecera ultima = cabeceras.get(cabeceras.size() - 1);
+    Cursor siguiente =
+        haySiguiente ? new Cursor(ultima.fechaActualizacion(), new PedidoId(ultima.id())) : null;
+    return new PaginaPedidos(pedidos, siguiente);
+  }
+
+  private List<PedidoCabecera> buscarCabeceras(ListarPedidosQuery query) {
+    StringBuilder jpql =
+        new StringBuilder(
+            "SELECT new "
+                + PedidoCabecera.class.getName()
+                + "(p.id, p.estado, p.fechaCreacion, p.fechaActualizacion, p.total, p.version)"
+                + " FROM PedidoEntity p WHERE 1 = 1");
+    if (query.estado() != null) {
+      jpql.append(" AND p.estado IN :estados");
+    }
+    if (query.despuesDe() != null) {
+      // Seek: todo lo que va "después" de la última fila entregada en orden descendente
+      jpql.append(
+          " AND (p.fechaActualizacion < :fecha"
+              + " OR (p.fechaActualizacion = :fecha AND p.id < :id))");
+    }
+    jpql.append(" ORDER BY p.fechaActualizacion DESC, p.id DESC");
+
+    TypedQuery<PedidoCabecera> consulta =
+        entityManager.createQuery(jpql.toString(), PedidoCabecera.class);
+    if (query.estado() != null) {
+      consulta.setParameter("estados", mapper.estadosEntidad(query.estado()));
+    }
+    if (query.despuesDe() != null) {
+      consulta.setParameter("fecha", query.despuesDe().fechaActualizacion());
+      consulta.setParameter("id", query.despuesDe().pedidoId().toUuid());
+    }
+    return consulta.setMaxResults(query.tamano() + 1).getResultList();
+  }
+
+  private Map<UUID, List<PedidoItemEntity>> buscarItems(List<PedidoCabecera> cabeceras) {
+    List<UUID> ids = cabeceras.stream().map(PedidoCabecera::id).toList();
+    List<PedidoItemEntity> items =
+        entityManager
+            .createQuery(
+                "SELECT i FROM PedidoItemEntity i WHERE i.pedido.id IN :ids ORDER BY i.id",
+                PedidoItemEntity.class)
+            .setParameter("ids", ids)
+            .getResultList();
+
+    Map<UUID, List<PedidoItemEntity>> itemsPorPedido = new HashMap<>();
+    for (PedidoItemEntity item : items) {
+      // getId() de un proxy LAZY no lo inicializa: no hay consultas extra
+      itemsPorPedido.computeIfAbsent(item.getPedido().getId(), id -> new ArrayList<>()).add(item);
+    }
+    return itemsPorPedido;
+  }
+}
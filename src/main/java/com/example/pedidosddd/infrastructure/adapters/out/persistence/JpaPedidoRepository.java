@@ -1,6 +1,20 @@
 package com.example.pedidosddd.infrastructure.adapters.out.persistence;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -12,16 +26,54 @@ import org.springframework.stereotype.Repository;
  * <p>En Hexagonal: Este es un DETALLE del adaptador, no el puerto
  */
 @Repository
-public interface JpaPedidoRepository extends JpaRepository<PedidoEntity, String> {
+public interface JpaPedidoRepository extends JpaRepository<PedidoEntity, UUID> {
 
   // Spring Data genera automáticamente:
   // - save(PedidoEntity entity)
-  // - findById(String id)
-  // - deleteById(String id)
+  // - findById(UUID id)
+  // - deleteById(UUID id)
   // - findAll()
   // Y muchos más...
 
   // Podemos agregar queries personalizadas si necesitamos:
   // @Query("SELECT p FROM PedidoEntity p WHERE p.estado = :estado")
   // List<PedidoEntity> findByEstado(@Param("estado") EstadoPedidoEntity estado);
+
+  /** Plan de carga completo: cabecera e items en una sola consulta (LEFT JOIN) */
+  @EntityGraph(attributePaths = "items")
+  @Query("SELECT p FROM PedidoEntity p WHERE p.id = :id")
+  Optional<PedidoEntity> findConItemsById(@Param("id") UUID id);
+
+  /** Plan de solo cabecera: una columna, sin tocar pedido_items */
+  @Query("SELECT p.estado FROM PedidoEntity p WHERE p.id = :id")
+  Optional<EstadoPedidoEntity> findEstadoById(@Param("id") UUID id);
+
+  /**
+   * Siguiente lote de pedidos en esos estados sin tocar desde antes del límite, bloqueado para este
+   * archivador (SKIP LOCKED, como el outbox). Solo cabeceras: FOR UPDATE no admite el lado opcional
+   * de un LEFT JOIN con items.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query(
+      "SELECT p FROM PedidoEntity p WHERE p.estado IN :estados"
+          + " AND p.fechaActualizacion < :limite ORDER BY p.fechaActualizacion")
+  List<PedidoEntity> siguientesParaArchivar(
+      @Param("estados") Collection<EstadoPedidoEntity> estados,
+      @Param("limite") LocalDateTime limite,
+      Pageable lote);
+
+  /** Items de varios pedidos en una consulta (inicializa las colecciones de los ya cargados) */
+  @EntityGraph(attributePaths = "items")
+  @Query("SELECT p FROM PedidoEntity p WHERE p.id IN :ids")
+  List<PedidoEntity> findConItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
+  /** Borrado en bloque: primero items (clave ajena) y luego cabeceras, sin cargar entidades */
+  @Modifying
+  @Query("DELETE FROM PedidoItemEntity i WHERE i.pedido.id IN :ids")
+  int borrarItemsPorPedidos(@Param("ids") Collection<UUID> ids);
+
+  @Modifying
+  @Query("DELETE FROM PedidoEntity p WHERE p.id IN :ids")
+  int borrarPorIds(@Param("ids") Collection<UUID> ids);
 }
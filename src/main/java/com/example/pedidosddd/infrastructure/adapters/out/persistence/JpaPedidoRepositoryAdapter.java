@@ -1,10 +1,20 @@
 package com.example.pedidosddd.infrastructure.adapters.out.persistence;
 
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
 import com.example.pedidosddd.application.ports.out.PedidoRepositoryPort;
+import com.example.pedidosddd.domain.model.EstadoPedido;
 import com.example.pedidosddd.domain.model.Pedido;
 import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.infrastructure.adapters.out.archivo.ArchivoPedidos;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.EnrutadorParticiones;
+import com.example.pedidosddd.infrastructure.adapters.out.resumen.PedidoResumenProyector;
+import java.util.Objects;
 import java.util.Optional;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * ADAPTADOR DE SALIDA - Persistencia JPA Real
@@ -14,47 +24,161 @@ import org.springframework.stereotype.Repository;
  *
  * <p>En Hexagonal: Este adaptador traduce entre el dominio y la base de datos Ventaja: Puedo
  * cambiar esta implementación (H2 -> PostgreSQL) sin tocar el dominio
+ *
+ * <p>Es el "almacén" real: PedidoRepositoryConfig lo envuelve con la caché antes de entregarlo a
+ * los use cases
+ *
+ * <p>Transactional outbox: los eventos de dominio del pedido se insertan en outbox_eventos en la
+ * misma transacción que el pedido; OutboxRelay los publica después. La proyección de lectura
+ * pedido_resumen (PedidoResumenProyector) se actualiza también en esa transacción.
+ *
+ * <p>Planes de carga: findById y save traen cabecera e items en una consulta (entity graph);
+ * existsById y findEstadoById leen solo la cabecera.
+ *
+ * <p>Archivo: los pedidos terminados antiguos los mueve ArchivadorPedidos a pedidos_archivo. Las
+ * lecturas que no encuentran el pedido en pedidos lo buscan allí, así que para los use cases sigue
+ * existiendo (y, como ya no puede cambiar, no se vuelve a guardar).
+ *
+ * <p>Con varias particiones (pedidos.particiones.cantidad) cada llamada llega ya enrutada por
+ * ParticionadoPedidoRepositoryAdapter: la transacción se abre en la base de datos del pedido.
+ *
+ * <p>Almacén por defecto: con el perfil "eventsourcing" lo sustituye
+ * EventSourcedPedidoRepositoryAdapter y con el perfil "fichero" MappedFilePedidoRepositoryAdapter.
  */
 @Repository
+@Qualifier("almacenPedidos")
+@Profile("!eventsourcing & !fichero")
 public class JpaPedidoRepositoryAdapter implements PedidoRepositoryPort {
 
   private final JpaPedidoRepository jpaRepository;
   private final PedidoMapper mapper;
+  private final JpaOutboxRepository outboxRepository;
+  private final OutboxEventoMapper outboxMapper;
+  private final PedidoResumenProyector resumenProyector;
+  private final ArchivoPedidos archivo;
+  private final EnrutadorParticiones enrutador;
 
-  public JpaPedidoRepositoryAdapter(JpaPedidoRepository jpaRepository, PedidoMapper mapper) {
+  public JpaPedidoRepositoryAdapter(
+      JpaPedidoRepository jpaRepository,
+      PedidoMapper mapper,
+      JpaOutboxRepository outboxRepository,
+      OutboxEventoMapper outboxMapper,
+      PedidoResumenProyector resumenProyector,
+      ArchivoPedidos archivo,
+      EnrutadorParticiones enrutador) {
     this.jpaRepository = jpaRepository;
     this.mapper = mapper;
+    this.outboxRepository = outboxRepository;
+    this.outboxMapper = outboxMapper;
+    this.resumenProyector = resumenProyector;
+    this.archivo = archivo;
+    this.enrutador = enrutador;
   }
 
   /** Busca un pedido por ID usando JPA real Puerto de salida implementado con H2 */
   @Override
   public Optional<Pedido> findById(PedidoId pedidoId) {
     return jpaRepository
-        .findById(pedidoId.getValue())
-        .map(mapper::toDomain); // Convierte Entity -> Domain
+        .findConItemsById(pedidoId.toUuid())
+        .map(mapper::toDomain) // Convierte Entity -> Domain
+        .or(() -> archivo.buscar(pedidoId));
   }
 
-  /** Guarda un pedido usando JPA real Puerto de salida implementado con H2 */
+  /** Solo cabecera: SELECT sobre la clave primaria, sin items */
   @Override
+  public boolean existsById(PedidoId pedidoId) {
+    return jpaRepository.existsById(pedidoId.toUuid()) || archivo.existe(pedidoId);
+  }
+
+  /** Solo cabecera: una columna de pedidos, sin items (o la columna estado del archivo) */
+  @Override
+  public Optional<EstadoPedido> findEstadoById(PedidoId pedidoId) {
+    return jpaRepository
+        .findEstadoById(pedidoId.toUuid())
+        .map(mapper::mapEstado)
+        .or(() -> archivo.buscarEstado(pedidoId));
+  }
+
+  /**
+   * Guarda un pedido usando JPA real Puerto de salida implementado con H2
+   *
+   * <p>Si el pedido ya existe se carga la entidad gestionada y se aplica solo la diferencia con el
+   * dominio (dirty checking), en lugar de reconstruir y hacer merge de todo el grafo.
+   *
+   * <p>Concurrencia optimista: si la versión del Pedido no es la almacenada, o alguien la cambia
+   * antes del flush, se lanza ConflictoDeConcurrenciaException en lugar de pisar sus cambios.
+   *
+   * <p>Los eventos pendientes del pedido se guardan en el outbox dentro de esta transacción y se
+   * limpian del agregado solo si el flush fue bien.
+   *
+   * @throws ConflictoDeConcurrenciaException si el pedido se modificó desde que se leyó
+   */
+  @Override
+  @Transactional
   public Pedido save(Pedido pedido) {
-    // 1. Convertir Domain -> Entity
-    PedidoEntity entity = mapper.toEntity(pedido);
+    // 1. Buscar la entidad gestionada (si existe)
+    PedidoEntity entity =
+        jpaRepository
+            .findConItemsById(pedido.getId().toUuid())
+            .map(
+                existente -> {
+                  // 2a. Existe: comprobar que partimos de la última versión guardada
+                  if (!Objects.equals(existente.getVersion(), pedido.getVersion())) {
+                    throw new ConflictoDeConcurrenciaException(
+                        "El pedido "
+                            + pedido.getId().getValue()
+                            + " fue modificado por otra operación");
+                  }
+                  // Aplicar solo los cambios, Hibernate hace el resto en el flush
+                  mapper.actualizarEntidad(existente, pedido);
+                  return existente;
+                })
+            // 2b. Nuevo: Convertir Domain -> Entity y persistir
+            .orElseGet(
+                () -> {
+                  if (pedido.getVersion() != null && archivo.existe(pedido.getId())) {
+                    throw new IllegalStateException(
+                        "El pedido " + pedido.getId().getValue() + " está archivado");
+                  }
+                  if (pedido.getVersion() != null) {
+                    // Tenía versión, así que existió: alguien lo eliminó mientras tanto
+                    throw new ConflictoDeConcurrenciaException(
+                        "El pedido " + pedido.getId().getValue() + " ya no existe");
+                  }
+                  return jpaRepository.save(mapper.toEntity(pedido));
+                });
+
+    // Outbox: mismos commit/rollback que el pedido
+    outboxRepository.saveAll(outboxMapper.toEntities(pedido.getEventosPendientes()));
+
+    // Read model: mismos commit/rollback que el pedido
+    resumenProyector.proyectar(pedido);
 
-    // 2. Guardar en H2 usando JPA
-    PedidoEntity savedEntity = jpaRepository.save(entity);
+    // Flush explícito para detectar aquí un UPDATE concurrente (WHERE version = ?)
+    try {
+      jpaRepository.flush();
+    } catch (OptimisticLockingFailureException e) {
+      throw new ConflictoDeConcurrenciaException(
+          "El pedido " + pedido.getId().getValue() + " fue modificado por otra operación", e);
+    }
+    pedido.limpiarEventos();
 
     // 3. Convertir Entity -> Domain y retornar
-    return mapper.toDomain(savedEntity);
+    return mapper.toDomain(entity);
   }
 
   /** Elimina un pedido por ID usando JPA real Puerto de salida implementado con H2 */
   @Override
+  @Transactional
   public void deleteById(PedidoId pedidoId) {
-    jpaRepository.deleteById(pedidoId.getValue());
+    jpaRepository.deleteById(pedidoId.toUuid());
+    resumenProyector.eliminar(pedidoId);
+    archivo.eliminar(pedidoId);
   }
 
-  // Método de utilidad para verificar datos en H2
+  // Método de utilidad para verificar datos en H2; con particiones, un COUNT por partición en
+  // paralelo
   public long cantidadPedidos() {
-    return jpaRepository.count();
+    return enrutador.enTodas(jpaRepository::count).stream().mapToLong(Long::longValue).sum();
   }
 }
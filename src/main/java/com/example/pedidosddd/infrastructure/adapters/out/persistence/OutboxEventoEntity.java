@@ -0,0 +1,75 @@
+package com.example.pedidosddd.infrastructure.adapters.out.persistence;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * ENTIDAD JPA - Evento de dominio pendiente de publicar (transactional outbox)
+ *
+ * <p>Se inserta en la misma transacción que el pedido que lo generó, así que el evento existe si y
+ * solo si el cambio se guardó. OutboxRelay la borra una vez publicada.
+ */
+@Entity
+@Table(name = "outbox_eventos")
+public class OutboxEventoEntity {
+
+  // El relay lee en orden de id: es el orden en que se registraron los eventos. Se queda en
+  // IDENTITY a propósito: con una secuencia pooled cada instancia reserva su bloque de ids y el
+  // orden dejaría de seguir al de inserción entre instancias
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  // Identificador estable para que los consumidores descarten duplicados
+  @Column(name = "evento_id", nullable = false, length = 36)
+  private String eventoId;
+
+  @Column(name = "pedido_id", nullable = false)
+  private String pedidoId;
+
+  @Column(nullable = false, length = 50)
+  private String tipo;
+
+  @Column(nullable = false, length = 4000)
+  private String payload;
+
+  @Column(name = "ocurrido_en", nullable = false)
+  private LocalDateTime ocurridoEn;
+
+  // Constructor para JPA
+  protected OutboxEventoEntity() {}
+
+  public OutboxEventoEntity(
+      String eventoId, String pedidoId, String tipo, String payload, LocalDateTime ocurridoEn) {
+    this.eventoId = eventoId;
+    this.pedidoId = pedidoId;
+    this.tipo = tipo;
+    this.payload = payload;
+    this.ocurridoEn = ocurridoEn;
+  }
+
+  // Getters
+  public Long getId() {
+    return id;
+  }
+
+  public String getEventoId() {
+    return eventoId;
+  }
+
+  public String getPedidoId() {
+    return pedidoId;
+  }
+
+  public String getTipo() {
+    return tipo;
+  }
+
+  public String getPayload() {
+    return payload;
+  }
+
+  public LocalDateTime getOcurridoEn() {
+    return ocurridoEn;
+  }
+}
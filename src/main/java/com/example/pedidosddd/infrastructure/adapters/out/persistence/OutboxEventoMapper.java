@@ -0,0 +1,36 @@
+package com.example.pedidosddd.infrastructure.adapters.out.persistence;
+
+import com.example.pedidosddd.domain.event.EventoPedido;
+import com.example.pedidosddd.infrastructure.adapters.out.eventos.EventoPedidoJsonCodec;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+
+/**
+ * MAPPER - Convierte eventos de dominio en filas del outbox
+ *
+ * <p>El payload lo genera EventoPedidoJsonCodec: JSON plano con tipos primitivos (ids como String),
+ * así los consumidores no dependen de las clases del dominio.
+ */
+@Component
+public class OutboxEventoMapper {
+
+  private final EventoPedidoJsonCodec codec;
+
+  public OutboxEventoMapper(EventoPedidoJsonCodec codec) {
+    this.codec = codec;
+  }
+
+  public List<OutboxEventoEntity> toEntities(List<EventoPedido> eventos) {
+    return eventos.stream().map(this::toEntity).toList();
+  }
+
+  public OutboxEventoEntity toEntity(EventoPedido evento) {
+    return new OutboxEventoEntity(
+        UUID.randomUUID().toString(),
+        evento.pedidoId().getValue(),
+        codec.tipo(evento),
+        codec.toJson(evento),
+        evento.ocurridoEn());
+  }
+}
@@ -0,0 +1,102 @@
+package com.example.pedidosddd.infrastructure.adapters.out.persistence;
+
+import com.example.pedidosddd.application.ports.out.PublicadorEventosPort;
+import com.example.pedidosddd.application.ports.out.PublicadorEventosPort.EventoPublicable;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.EnrutadorParticiones;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * RELAY DEL OUTBOX - Vacía outbox_eventos hacia el PublicadorEventosPort
+ *
+ * <p>Cada lote es una transacción: se bloquean hasta N filas (SKIP LOCKED), se publican y se
+ * borran. Si la publicación falla, la transacción se revierte y las filas siguen ahí para la
+ * próxima pasada. Un lote lleno indica que hay más pendientes, así que se sigue sin esperar al
+ * siguiente intervalo.
+ *
+ * <p>Los consumidores leen eventos en lugar de consultar la tabla pedidos periódicamente.
+ *
+ * <p>Con el almacén particionado cada partición tiene su outbox (se escribe en la transacción del
+ * pedido): se drenan una tras otra en cada pasada.
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.outbox.relay-habilitado", matchIfMissing = true)
+public class OutboxRelay {
+
+  private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+  private final JpaOutboxRepository outboxRepository;
+  private final PublicadorEventosPort publicador;
+  private final TransactionTemplate transaccion;
+  private final EnrutadorParticiones enrutador;
+  private final int tamanoLote;
+
+  public OutboxRelay(
+      JpaOutboxRepository outboxRepository,
+      PublicadorEventosPort publicador,
+      TransactionTemplate transaccion,
+      EnrutadorParticiones enrutador,
+      @Value("${pedidos.outbox.tamano-lote:200}") int tamanoLote) {
+    this.outboxRepository = outboxRepository;
+    this.publicador = publicador;
+    this.transaccion = transaccion;
+    this.enrutador = enrutador;
+    this.tamanoLote = tamanoLote;
+  }
+
+  @Scheduled(fixedDelayString = "${pedidos.outbox.intervalo-ms:500}")
+  public void drenar() {
+    for (int particion = 0; particion < enrutador.cantidad(); particion++) {
+      int destino = particion;
+      try {
+        enrutador.enParticion(
+            destino,
+            () -> {
+              int publicados;
+              do {
+                publicados = publicarLote();
+              } while (publicados == tamanoLote);
+            });
+      } catch (RuntimeException e) {
+        // Se reintenta en el siguiente intervalo, los eventos siguen en el outbox
+        log.warn(
+            "No se pudo publicar el outbox (partición {}), se reintentará: {}",
+            destino,
+            e.getMessage());
+      }
+    }
+  }
+
+  /** Publica y borra un lote en una sola transacción; devuelve cuántos eventos procesó */
+  int publicarLote() {
+    Integer procesados =
+        transaccion.execute(
+            estado -> {
+              List<OutboxEventoEntity> lote =
+                  outboxRepository.siguienteLote(PageRequest.of(0, tamanoLote));
+              if (lote.isEmpty()) {
+                return 0;
+              }
+              publicador.publicar(lote.stream().map(OutboxRelay::toEventoPublicable).toList());
+              outboxRepository.borrarPorIds(lote.stream().map(OutboxEventoEntity::getId).toList());
+              return lote.size();
+            });
+    return procesados != null ? procesados : 0;
+  }
+
+  private static EventoPublicable toEventoPublicable(OutboxEventoEntity entity) {
+    return new EventoPublicable(
+        entity.getEventoId(),
+        entity.getPedidoId(),
+        entity.getTipo(),
+        entity.getPayload(),
+        entity.getOcurridoEn());
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.pedidosddd.infrastructure.adapters.out.persistence;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * PROYECCIÓN JPA - Solo la fila de la tabla pedidos, sin items
+ *
+ * <p>Se usa en consultas de listado (constructor expression JPQL) para no arrastrar la colección de
+ * items de cada PedidoEntity; los items se cargan aparte en una sola consulta por página.
+ */
+public record PedidoCabecera(
+    UUID id,
+    EstadoPedidoEntity estado,
+    LocalDateTime fechaCreacion,
+    LocalDateTime fechaActualizacion,
+    BigDecimal total,
+    Long version) {}
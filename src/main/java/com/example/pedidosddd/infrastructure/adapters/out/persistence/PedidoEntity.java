@@ -1,9 +1,11 @@
 package com.example.pedidosddd.infrastructure.adapters.out.persistence;
 
 import jakarta.persistence.*;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * ENTIDAD JPA - Capa de Persistencia
@@ -14,28 +16,48 @@ import java.util.List;
  * <p>En Hexagonal: Esta clase pertenece al ADAPTADOR, no al dominio
  */
 @Entity
-@Table(name = "pedidos")
+@Table(
+    name = "pedidos",
+    indexes = {
+      // Keyset del listado: ORDER BY fecha_actualizacion DESC, id DESC
+      @Index(name = "idx_pedidos_actualizacion", columnList = "fecha_actualizacion, id"),
+      // Mismo recorrido filtrando por estado
+      @Index(
+          name = "idx_pedidos_estado_actualizacion",
+          columnList = "estado, fecha_actualizacion, id")
+    })
 public class PedidoEntity {
 
-  @Id private String id;
+  // UUID nativo: uuid en PostgreSQL y H2 (16 bytes), BINARY(16) en bases sin tipo uuid
+  @Id private UUID id;
+
+  // Concurrencia optimista: UPDATE ... WHERE version = ? (null = entidad nueva)
+  @Version private Long version;
 
   @Enumerated(EnumType.STRING)
   private EstadoPedidoEntity estado;
 
+  // Total desnormalizado: las lecturas no tienen que recalcularlo
+  @Column(name = "total", precision = 12, scale = 2)
+  private BigDecimal total;
+
   @Column(name = "fecha_creacion")
   private LocalDateTime fechaCreacion;
 
   @Column(name = "fecha_actualizacion")
   private LocalDateTime fechaActualizacion;
 
-  @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+  // LAZY: las lecturas de cabecera (existencia, estado, count) no arrastran los items. Quien
+  // necesita el agregado completo los trae en la misma consulta
+  // (JpaPedidoRepository#findConItemsById)
+  @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<PedidoItemEntity> items = new ArrayList<>();
 
   // Constructor para JPA
   protected PedidoEntity() {}
 
   public PedidoEntity(
-      String id,
+      UUID id,
       EstadoPedidoEntity estado,
       LocalDateTime fechaCreacion,
       LocalDateTime fechaActualizacion) {
@@ -46,14 +68,22 @@ public class PedidoEntity {
   }
 
   // Getters y Setters
-  public String getId() {
+  public UUID getId() {
     return id;
   }
 
-  public void setId(String id) {
+  public void setId(UUID id) {
     this.id = id;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   public EstadoPedidoEntity getEstado() {
     return estado;
   }
@@ -62,6 +92,14 @@ public class PedidoEntity {
     this.estado = estado;
   }
 
+  public BigDecimal getTotal() {
+    return total;
+  }
+
+  public void setTotal(BigDecimal total) {
+    this.total = total;
+  }
+
   public LocalDateTime getFechaCreacion() {
     return fechaCreacion;
   }
@@ -10,11 +10,20 @@ import java.math.BigDecimal;
  * dominio para mantener pureza
  */
 @Entity
-@Table(name = "pedido_items")
+@Table(
+    name = "pedido_items",
+    // Carga de los items de uno o varios pedidos (WHERE pedido_id IN ...)
+    indexes = @Index(name = "idx_pedido_items_pedido", columnList = "pedido_id"))
 public class PedidoItemEntity {
 
+  // Secuencia pooled (50 ids por llamada): con IDENTITY Hibernate no puede agrupar los INSERT en
+  // lotes JDBC porque necesita la clave generada de cada fila antes de seguir
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_items_seq")
+  @SequenceGenerator(
+      name = "pedido_items_seq",
+      sequenceName = "pedido_items_seq",
+      allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -1,6 +1,13 @@
 package com.example.pedidosddd.infrastructure.adapters.out.persistence;
 
 import com.example.pedidosddd.domain.model.*;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.InternadoProductos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
 
@@ -11,18 +18,50 @@ import org.springframework.stereotype.Component;
  * mantener el dominio puro sin anotaciones JPA
  *
  * <p>En Hexagonal: Esto es parte del ADAPTADOR, no del dominio
+ *
+ * <p>Métricas: cada conversión pública se mide en pedidos.mapper{operacion}. Los timers se
+ * registran una vez aquí, no en cada llamada.
+ *
+ * <p>Al leer, los productos salen de InternadoProductos y las líneas se rehidratan sin revalidar:
+ * son datos que el dominio ya validó al guardarlos.
  */
 @Component
 public class PedidoMapper {
 
+  private final Timer toEntityTimer;
+  private final Timer actualizarEntidadTimer;
+  private final Timer toDomainTimer;
+  private final InternadoProductos internado;
+
+  public PedidoMapper(MeterRegistry meterRegistry, InternadoProductos internado) {
+    this.internado = internado;
+    this.toEntityTimer = timer(meterRegistry, "toEntity");
+    this.actualizarEntidadTimer = timer(meterRegistry, "actualizarEntidad");
+    this.toDomainTimer = timer(meterRegistry, "toDomain");
+  }
+
+  private static Timer timer(MeterRegistry meterRegistry, String operacion) {
+    return Timer.builder("pedidos.mapper")
+        .description("Conversión Dominio ↔ Entidad JPA")
+        .tag("operacion", operacion)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
   /** Convierte del dominio a entidad JPA Dominio -> Base de datos */
   public PedidoEntity toEntity(Pedido pedido) {
+    return toEntityTimer.record(() -> construirEntidad(pedido));
+  }
+
+  private PedidoEntity construirEntidad(Pedido pedido) {
     PedidoEntity entity =
         new PedidoEntity(
-            pedido.getId().getValue(),
+            pedido.getId().toUuid(),
             mapEstado(pedido.getEstado()),
             pedido.getFechaCreacion(),
             pedido.getFechaActualizacion());
+    entity.setTotal(pedido.calcularTotal());
+    entity.setVersion(pedido.getVersion());
 
     // Mapear items
     java.util.List<PedidoItemEntity> itemEntities =
@@ -35,8 +74,63 @@ public class PedidoMapper {
     return entity;
   }
 
+  /**
+   * Sincroniza una entidad JPA ya gestionada con el estado del dominio
+   *
+   * <p>A diferencia de toEntity, no reconstruye el grafo: solo toca los campos que cambiaron, así
+   * el dirty checking de Hibernate emite únicamente los UPDATE/INSERT/DELETE necesarios. Los items
+   * se emparejan por ProductoId (la identidad del PedidoItem dentro del agregado).
+   */
+  public void actualizarEntidad(PedidoEntity entity, Pedido pedido) {
+    actualizarEntidadTimer.record(() -> sincronizarEntidad(entity, pedido));
+  }
+
+  private void sincronizarEntidad(PedidoEntity entity, Pedido pedido) {
+    EstadoPedidoEntity estado = mapEstado(pedido.getEstado());
+    if (entity.getEstado() != estado) {
+      entity.setEstado(estado);
+    }
+    if (!Objects.equals(entity.getFechaActualizacion(), pedido.getFechaActualizacion())) {
+      entity.setFechaActualizacion(pedido.getFechaActualizacion());
+    }
+    if (entity.getTotal() == null || entity.getTotal().compareTo(pedido.calcularTotal()) != 0) {
+      entity.setTotal(pedido.calcularTotal());
+    }
+
+    // Indexar los items del dominio por ProductoId para emparejar en O(1)
+    Map<String, PedidoItem> itemsDominio = new HashMap<>();
+    for (PedidoItem item : pedido.getItems()) {
+      itemsDominio.put(item.getProducto().getId().getValue(), item);
+    }
+
+    // 1. UPDATE de los existentes / DELETE (orphanRemoval) de los que ya no están
+    entity
+        .getItems()
+        .removeIf(
+            itemEntity -> {
+              PedidoItem item = itemsDominio.remove(itemEntity.getProductoId());
+              if (item == null) {
+                itemEntity.setPedido(null);
+                return true;
+              }
+              actualizarItemEntidad(itemEntity, item);
+              return false;
+            });
+
+    // 2. INSERT de los nuevos, respetando el orden del dominio
+    for (PedidoItem item : pedido.getItems()) {
+      if (itemsDominio.containsKey(item.getProducto().getId().getValue())) {
+        entity.addItem(toItemEntity(item));
+      }
+    }
+  }
+
   /** Convierte de entidad JPA a dominio Base de datos -> Dominio */
   public Pedido toDomain(PedidoEntity entity) {
+    return toDomainTimer.record(() -> recrearPedido(entity));
+  }
+
+  private Pedido recrearPedido(PedidoEntity entity) {
     java.util.List<PedidoItem> items =
         entity.getItems().stream().map(this::toItemDomain).collect(Collectors.toList());
 
@@ -45,7 +139,37 @@ public class PedidoMapper {
         items,
         mapEstado(entity.getEstado()),
         entity.getFechaCreacion(),
-        entity.getFechaActualizacion());
+        entity.getFechaActualizacion(),
+        entity.getTotal(),
+        entity.getVersion());
+  }
+
+  /** Convierte una cabecera (proyección) y sus items ya cargados a dominio */
+  public Pedido toDomain(PedidoCabecera cabecera, List<PedidoItemEntity> itemEntities) {
+    return toDomainTimer.record(() -> recrearPedido(cabecera, itemEntities));
+  }
+
+  private Pedido recrearPedido(PedidoCabecera cabecera, List<PedidoItemEntity> itemEntities) {
+    java.util.List<PedidoItem> items =
+        itemEntities.stream().map(this::toItemDomain).collect(Collectors.toList());
+
+    return PedidoFactory.recrearPedidoDesdeRepositorio(
+        new PedidoId(cabecera.id()),
+        items,
+        mapEstado(cabecera.estado()),
+        cabecera.fechaCreacion(),
+        cabecera.fechaActualizacion(),
+        cabecera.total(),
+        cabecera.version());
+  }
+
+  /** Estados de base de datos que corresponden a un estado del dominio (para filtrar) */
+  List<EstadoPedidoEntity> estadosEntidad(EstadoPedido estado) {
+    return switch (estado) {
+      case PENDIENTE -> List.of(EstadoPedidoEntity.NUEVO, EstadoPedidoEntity.PROCESANDO);
+      case COMPLETADO -> List.of(EstadoPedidoEntity.COMPLETADO);
+      case CANCELADO -> List.of(EstadoPedidoEntity.CANCELADO);
+    };
   }
 
   /** Convierte item del dominio a entidad */
@@ -57,14 +181,27 @@ public class PedidoMapper {
         item.getPrecioUnitario());
   }
 
-  /** Convierte item de entidad a dominio */
+  /** Copia solo los campos modificados para no ensuciar la entidad sin necesidad */
+  private void actualizarItemEntidad(PedidoItemEntity entity, PedidoItem item) {
+    if (entity.getCantidad() != item.getCantidad()) {
+      entity.setCantidad(item.getCantidad());
+    }
+    if (!Objects.equals(entity.getNombreProducto(), item.getProducto().getNombre())) {
+      entity.setNombreProducto(item.getProducto().getNombre());
+    }
+    if (entity.getPrecioUnitario() == null
+        || entity.getPrecioUnitario().compareTo(item.getPrecioUnitario()) != 0) {
+      entity.setPrecioUnitario(item.getPrecioUnitario());
+    }
+  }
+
+  /** Convierte item de entidad a dominio: Producto compartido, sin revalidar */
   private PedidoItem toItemDomain(PedidoItemEntity entity) {
-    ProductoId productoId = new ProductoId(entity.getProductoId()); // ← MAPPER: String → ProductoId
     Producto producto =
-        new Producto(
-            productoId, entity.getNombreProducto(), entity.getPrecioUnitario());
+        internado.producto( // ← MAPPER: String → ProductoId (internado)
+            entity.getProductoId(), entity.getNombreProducto(), entity.getPrecioUnitario());
 
-    return new PedidoItem(producto, entity.getCantidad());
+    return PedidoFactory.rehidratarItem(producto, entity.getCantidad());
   }
 
   /** Mapea estado del dominio a entidad */
@@ -77,7 +214,7 @@ public class PedidoMapper {
   }
 
   /** Mapea estado de entidad a dominio */
-  private EstadoPedido mapEstado(EstadoPedidoEntity estado) {
+  EstadoPedido mapEstado(EstadoPedidoEntity estado) {
     return switch (estado) {
       case NUEVO -> EstadoPedido.PENDIENTE;
       case PROCESANDO -> EstadoPedido.PENDIENTE; // Mapeamos a PENDIENTE si no existe en dominio
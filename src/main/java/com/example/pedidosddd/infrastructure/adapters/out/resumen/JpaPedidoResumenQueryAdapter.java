@@ -0,0 +1,45 @@
+package com.example.pedidosddd.infrastructure.adapters.out.resumen;
+
+import com.example.pedidosddd.application.ports.in.ConsultarResumenPedidoUseCase.ResumenPedido;
+import com.example.pedidosddd.application.ports.out.PedidoResumenQueryPort;
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import java.util.Optional;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ADAPTADOR DE SALIDA - Lectura de pedido_resumen con JPA
+ *
+ * <p>Una consulta por clave primaria sobre una sola tabla; la lista de productos sale tal cual se
+ * guardó, sin PedidoMapper ni entidades del lado de escritura.
+ *
+ * <p>Solo con los almacenes que mantienen la proyección (JPA y event sourcing); con el perfil
+ * "fichero" la sustituye SinProyeccionPedidoResumenQueryAdapter.
+ */
+@Repository
+@Profile("!fichero")
+public class JpaPedidoResumenQueryAdapter implements PedidoResumenQueryPort {
+
+  private final JpaPedidoResumenRepository resumenRepository;
+
+  public JpaPedidoResumenQueryAdapter(JpaPedidoResumenRepository resumenRepository) {
+    this.resumenRepository = resumenRepository;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<ResumenPedido> buscarResumen(PedidoId pedidoId) {
+    return resumenRepository
+        .findById(pedidoId.toUuid())
+        .map(
+            resumen ->
+                new ResumenPedido(
+                    pedidoId,
+                    EstadoPedido.valueOf(resumen.getEstado()),
+                    resumen.getTotal(),
+                    resumen.getCantidadItems(),
+                    resumen.getProductos()));
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.pedidosddd.infrastructure.adapters.out.resumen;
+
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/** REPOSITORIO JPA - Tabla pedido_resumen */
+public interface JpaPedidoResumenRepository extends JpaRepository<PedidoResumenEntity, UUID> {}
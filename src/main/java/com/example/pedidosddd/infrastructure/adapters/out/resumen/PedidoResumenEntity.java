@@ -0,0 +1,78 @@
+package com.example.pedidosddd.infrastructure.adapters.out.resumen;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * ENTIDAD JPA - Proyección de lectura de un pedido (tabla pedido_resumen)
+ *
+ * <p>Una fila por pedido con todo lo que necesita GET /api/pedidos/{id}: sin joins con pedido_items
+ * ni mapeo a dominio. La escribe PedidoResumenProyector en la transacción del save.
+ */
+@Entity
+@Table(name = "pedido_resumen")
+public class PedidoResumenEntity {
+
+  @Id
+  @Column(name = "pedido_id")
+  private UUID pedidoId;
+
+  // Nombre del EstadoPedido del dominio
+  @Column(nullable = false, length = 20)
+  private String estado;
+
+  @Column(nullable = false, precision = 12, scale = 2)
+  private BigDecimal total;
+
+  @Column(name = "cantidad_items", nullable = false)
+  private int cantidadItems;
+
+  // Array JSON ya renderizado; por encima del máximo de varchar Hibernate usa text en PostgreSQL
+  @Column(nullable = false, length = 16 * 1024 * 1024)
+  private String productos;
+
+  // Constructor para JPA
+  protected PedidoResumenEntity() {}
+
+  public PedidoResumenEntity(UUID pedidoId) {
+    this.pedidoId = pedidoId;
+  }
+
+  // Getters y setters
+  public UUID getPedidoId() {
+    return pedidoId;
+  }
+
+  public String getEstado() {
+    return estado;
+  }
+
+  public void setEstado(String estado) {
+    this.estado = estado;
+  }
+
+  public BigDecimal getTotal() {
+    return total;
+  }
+
+  public void setTotal(BigDecimal total) {
+    this.total = total;
+  }
+
+  public int getCantidadItems() {
+    return cantidadItems;
+  }
+
+  public void setCantidadItems(int cantidadItems) {
+    this.cantidadItems = cantidadItems;
+  }
+
+  public String getProductos() {
+    return productos;
+  }
+
+  public void setProductos(String productos) {
+    this.productos = productos;
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.pedidosddd.infrastructure.adapters.out.resumen;
+
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.domain.model.PedidoItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * PROYECTOR - Mantiene pedido_resumen a partir del estado guardado del pedido
+ *
+ * <p>Lo llaman los almacenes JPA (JpaPedidoRepositoryAdapter y EventSourcedPedidoRepositoryAdapter)
+ * dentro de su propia transacción: la proyección se confirma o se deshace junto con el pedido, así
+ * que una lectura nunca ve un resumen más nuevo ni más viejo que lo guardado. El coste (una fila
+ * por save) se paga en la escritura, que es ~20 veces menos frecuente que la lectura.
+ */
+@Component
+public class PedidoResumenProyector {
+
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+
+  public PedidoResumenProyector(EntityManager entityManager, ObjectMapper objectMapper) {
+    this.entityManager = entityManager;
+    this.objectMapper = objectMapper;
+  }
+
+  /** Inserta o actualiza el resumen; exige una transacción abierta por el almacén */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void proyectar(Pedido pedido) {
+    UUID id = pedido.getId().toUuid();
+    // Entidad gestionada: el dirty checking solo emite UPDATE si algo cambió. persist y no
+    // repository.save, que con id asignado haría merge y otro SELECT
+    PedidoResumenEntity resumen = entityManager.find(PedidoResumenEntity.class, id);
+    boolean nuevo = resumen == null;
+    if (nuevo) {
+      resumen = new PedidoResumenEntity(id);
+    }
+    resumen.setEstado(pedido.getEstado().name());
+    resumen.setTotal(pedido.calcularTotal());
+    resumen.setCantidadItems(pedido.getItems().size());
+    resumen.setProductos(renderizarProductos(pedido));
+    if (nuevo) {
+      // Después de rellenarlo: persist ya comprueba las columnas NOT NULL
+      entityManager.persist(resumen);
+    }
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void eliminar(PedidoId pedidoId) {
+    entityManager
+        .createQuery("DELETE FROM PedidoResumenEntity r WHERE r.pedidoId = :id")
+        .setParameter("id", pedidoId.toUuid())
+        .executeUpdate();
+  }
+
+  // Mismo formato que ProductoResponse de la API web
+  private String renderizarProductos(Pedido pedido) {
+    ArrayNode productos = objectMapper.createArrayNode();
+    for (PedidoItem item : pedido.getItems()) {
+      ObjectNode producto = productos.addObject();
+      producto.put("productoId", item.getProducto().getId().getValue());
+      producto.put("nombre", item.getProducto().getNombre());
+      producto.put("precio", item.getProducto().getPrecio());
+      producto.put("cantidad", item.getCantidad());
+    }
+    try {
+      return objectMapper.writeValueAsString(productos);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(
+          "No se pudo renderizar el resumen del pedido " + pedido.getId().getValue(), e);
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package com.example.pedidosddd.infrastructure.adapters.out.writebehind;
+
+import com.example.pedidosddd.domain.event.EventoPedido;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.infrastructure.adapters.out.eventos.EventoPedidoJsonCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Diario (WAL) de la escritura diferida: eventos aceptados y aún no guardados en el almacén
+ *
+ * <p>NDJSON, una línea por evento: versión del almacén sobre la que se acumuló, tipo y evento
+ * (mismo JSON que el outbox). Se escribe, y con sincronizar se fuerza a disco, antes de responder
+ * al cliente; tras una caída se reaplica lo que quede.
+ *
+ * <p>No hace falta marcar lo ya volcado: al guardar, la versión del pedido en el almacén cambia y
+ * sus líneas antiguas dejan de coincidir, así que reaplicarlas no duplica nada. El fichero se vacía
+ * cada vez que no queda ningún pedido pendiente.
+ *
+ * <p>Con tráfico continuo puede no llegar nunca ese momento: cuando el fichero pasa de
+ * compactarDesde se reescribe solo con las líneas de los pedidos que siguen pendientes. Si aun así
+ * queda grande, el umbral pasa al doble de lo que quedó, así el coste de reescribir se reparte
+ * entre lo anotado desde la compactación anterior.
+ */
+public final class DiarioEventosPendientes implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(DiarioEventosPendientes.class);
+
+  private final Path fichero;
+  private final boolean sincronizar;
+  private final long compactarDesde;
+  private final EventoPedidoJsonCodec eventoCodec;
+  private final ObjectMapper objectMapper;
+  // ReentrantLock y no synchronized: se hace E/S con el cerrojo tomado (hilos virtuales)
+  private final ReentrantLock cerrojo = new ReentrantLock();
+  // Cambian al compactar; solo se tocan con el cerrojo tomado
+  private FileChannel canal;
+  private long umbralCompactacion;
+
+  /** Un evento del diario y la versión del pedido en el almacén a la que se aplica */
+  public record Entrada(long versionAlmacen, EventoPedido evento) {}
+
+  public DiarioEventosPendientes(
+      Path fichero,
+      boolean sincronizar,
+      long compactarDesde,
+      EventoPedidoJsonCodec eventoCodec,
+      ObjectMapper objectMapper) {
+    this.fichero = fichero;
+    this.sincronizar = sincronizar;
+    this.compactarDesde = compactarDesde;
+    this.umbralCompactacion = compactarDesde;
+    this.eventoCodec = eventoCodec;
+    this.objectMapper = objectMapper;
+    try {
+      Path directorio = fichero.toAbsolutePath().getParent();
+      if (directorio != null) {
+        Files.createDirectories(directorio);
+      }
+      this.canal = abrir(fichero);
+    } catch (IOException e) {
+      throw new UncheckedIOException("No se pudo abrir el diario " + fichero, e);
+    }
+  }
+
+  /** Añade los eventos y, si se pidió, los fuerza a disco antes de volver */
+  public void anotar(long versionAlmacen, List<EventoPedido> eventos) {
+    if (eventos.isEmpty()) {
+      return;
+    }
+    ByteArrayOutputStream lote = new ByteArrayOutputStream();
+    try {
+      for (EventoPedido evento : eventos) {
+        ObjectNode linea = objectMapper.createObjectNode();
+        linea.put("version", versionAlmacen);
+        linea.put("tipo", eventoCodec.tipo(evento));
+        linea.put("evento", eventoCodec.toJson(evento));
+        lote.write(objectMapper.writeValueAsBytes(linea));
+        lote.write('\n');
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("No se pudieron serializar los eventos del diario", e);
+    }
+    cerrojo.lock();
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(lote.toByteArray());
+      while (buffer.hasRemaining()) {
+        canal.write(buffer);
+      }
+      if (sincronizar) {
+        canal.force(false);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("No se pudo escribir en el diario " + fichero, e);
+    } finally {
+      cerrojo.unlock();
+    }
+  }
+
+  /**
+   * Todas las entradas, en orden de escritura. Una última línea incompleta (caída a mitad de
+   * escritura) se descarta: su modificación nunca se confirmó al cliente.
+   */
+  public List<Entrada> leer() {
+    List<Entrada> entradas = new ArrayList<>();
+    cerrojo.lock();
+    try (BufferedReader lector = Files.newBufferedReader(fichero, StandardCharsets.UTF_8)) {
+      String linea;
+      while ((linea = lector.readLine()) != null) {
+        if (linea.isBlank()) {
+          continue;
+        }
+        try {
+          entradas.add(parsear(linea));
+        } catch (JsonProcessingException | RuntimeException e) {
+          log.warn("Diario {}: línea ilegible, se descarta el resto del fichero", fichero);
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("No se pudo leer el diario " + fichero, e);
+    } finally {
+      cerrojo.unlock();
+    }
+    return entradas;
+  }
+
+  /**
+   * Vacía el fichero si se cumple la condición, evaluada con el diario bloqueado: una anotación
+   * concurrente queda antes (y entonces la condición no se cumple) o después del vaciado
+   */
+  public void vaciarSi(BooleanSupplier condicion) {
+    cerrojo.lock();
+    try {
+      if (canal.size() > 0 && condicion.getAsBoolean()) {
+        canal.truncate(0);
+        canal.position(0);
+        umbralCompactacion = compactarDesde;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("No se pudo vaciar el diario " + fichero, e);
+    } finally {
+      cerrojo.unlock();
+    }
+  }
+
+  /**
+   * Si el fichero pasa del umbral, lo reescribe solo con las líneas de los pedidos para los que
+   * pendiente devuelve true (evaluado con el diario bloqueado, como en vaciarSi). El fichero nuevo
+   * se escribe aparte y sustituye al actual con un rename atómico: tras una caída queda uno u otro.
+   */
+  public void compactar(Predicate<PedidoId> pendiente) {
+    cerrojo.lock();
+    try {
+      if (canal.size() < umbralCompactacion) {
+        return;
+      }
+      long antes = canal.size();
+      ByteArrayOutputStream conservadas = new ByteArrayOutputStream();
+      try (BufferedReader lector = Files.newBufferedReader(fichero, StandardCharsets.UTF_8)) {
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+          if (linea.isBlank()) {
+            continue;
+          }
+          Entrada entrada;
+          try {
+            entrada = parsear(linea);
+          } catch (JsonProcessingException | RuntimeException e) {
+            break; // Igual que en leer: lo que sigue nunca se confirmó
+          }
+          if (pendiente.test(entrada.evento().pedidoId())) {
+            conservadas.write(linea.getBytes(StandardCharsets.UTF_8));
+            conservadas.write('\n');
+          }
+        }
+      }
+      Path temporal = fichero.resolveSibling(fichero.getFileName() + ".tmp");
+      try (FileChannel nuevo =
+          FileChannel.open(
+              temporal,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING,
+              StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = ByteBuffer.wrap(conservadas.toByteArray());
+        while (buffer.hasRemaining()) {
+          nuevo.write(buffer);
+        }
+        if (sincronizar) {
+          nuevo.force(false);
+        }
+      }
+      // Cerrado antes del rename (en Windows no se puede reemplazar un fichero abierto); si el
+      // rename falla se sigue anotando en el de antes
+      canal.close();
+      try {
+        Files.move(
+            temporal, fichero, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        canal = abrir(fichero);
+      }
+      umbralCompactacion = Math.max(compactarDesde, 2 * canal.size());
+      log.debug("Diario {} compactado: {} → {} bytes", fichero, antes, canal.size());
+    } catch (IOException e) {
+      throw new UncheckedIOException("No se pudo compactar el diario " + fichero, e);
+    } finally {
+      cerrojo.unlock();
+    }
+  }
+
+  private Entrada parsear(String linea) throws JsonProcessingException {
+    JsonNode json = objectMapper.readTree(linea);
+    return new Entrada(
+        json.get("version").asLong(),
+        eventoCodec.fromJson(json.get("tipo").asText(), json.get("evento").asText()));
+  }
+
+  /** Abre el fichero para añadir al final */
+  private static FileChannel abrir(Path fichero) throws IOException {
+    FileChannel canal =
+        FileChannel.open(
+            fichero, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    canal.position(canal.size());
+    return canal;
+  }
+
+  @Override
+  public void close() {
+    try {
+      canal.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException("No se pudo cerrar el diario " + fichero, e);
+    }
+  }
+}
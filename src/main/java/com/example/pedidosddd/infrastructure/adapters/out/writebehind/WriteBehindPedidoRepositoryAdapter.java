@@ -0,0 +1,501 @@
+package com.example.pedidosddd.infrastructure.adapters.out.writebehind;
+
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
+import com.example.pedidosddd.application.ports.out.PedidoRepositoryPort;
+import com.example.pedidosddd.domain.event.EventoPedido;
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoFactory;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.PedidoBinarioCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ADAPTADOR DE SALIDA - Decorador de escritura diferida (write-behind) para pedidos PENDIENTE
+ *
+ * <p>¿Qué hace? Mientras se llena un carrito llegan muchas modificaciones seguidas al mismo pedido.
+ * Cada pedido que se está modificando tiene un buzón con su estado en memoria; las modificaciones
+ * (PedidoRepositoryPort.modificar) se aplican ahí de una en una, se anotan en el diario y se
+ * responden sin tocar el almacén. Pasada la ventana, el buzón se vuelca con un único save que lleva
+ * todos los eventos acumulados: N escrituras por carrito pasan a ser del orden de una.
+ *
+ * <p>Se escribe en el momento (sin diferir) cuando la modificación deja el pedido fuera de
+ * PENDIENTE (completar, cancelar), cuando el buzón llega a maxEventos y en los save directos. Los
+ * pedidos nuevos van siempre directos al almacén.
+ *
+ * <p>Las versiones que ve el use case son siempre las del almacén: las modificaciones acumuladas no
+ * la cambian, así un conflicto solo puede venir de otro escritor del almacén. Si al volcar hay
+ * conflicto, los eventos acumulados se reaplican sobre el pedido recién leído (si sigue PENDIENTE).
+ *
+ * <p>Supone que cada pedido se modifica desde una sola instancia. Lo que se lee sin pasar por aquí
+ * (pedido_resumen, listados, outbox) va por detrás como mucho la ventana; tieneCambiosSinGuardar
+ * dice qué pedidos están en ese caso, para que su resumen se lea del agregado.
+ */
+public class WriteBehindPedidoRepositoryAdapter implements PedidoRepositoryPort, AutoCloseable {
+
+  private static final Logger log =
+      LoggerFactory.getLogger(WriteBehindPedidoRepositoryAdapter.class);
+  private static final Duration REINTENTO_MINIMO = Duration.ofSeconds(1);
+
+  private final PedidoRepositoryPort delegate;
+  private final DiarioEventosPendientes diario;
+  // Autocontenido: el estado de los buzones no depende de ningún diccionario
+  private final PedidoBinarioCodec codec = new PedidoBinarioCodec();
+  private final ConcurrentHashMap<PedidoId, Buzon> buzones = new ConcurrentHashMap<>();
+  private final ScheduledThreadPoolExecutor programador;
+  private final Duration ventana;
+  private final Duration reintento;
+  private final int maxEventos;
+  private final Counter diferidas;
+  private final Counter descartados;
+  private final MeterRegistry meterRegistry;
+
+  public WriteBehindPedidoRepositoryAdapter(
+      PedidoRepositoryPort delegate,
+      DiarioEventosPendientes diario,
+      Duration ventana,
+      int maxEventos,
+      int hilos,
+      MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.diario = diario;
+    this.ventana = ventana;
+    this.reintento = ventana.compareTo(REINTENTO_MINIMO) > 0 ? ventana : REINTENTO_MINIMO;
+    this.maxEventos = maxEventos;
+    this.meterRegistry = meterRegistry;
+    AtomicInteger contador = new AtomicInteger();
+    this.programador =
+        new ScheduledThreadPoolExecutor(
+            hilos,
+            tarea -> {
+              Thread hilo = new Thread(tarea, "pedidos-write-behind-" + contador.incrementAndGet());
+              hilo.setDaemon(true);
+              return hilo;
+            });
+    // Al cerrar se vuelca todo directamente: los volcados programados sobran
+    programador.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    this.diferidas =
+        Counter.builder("pedidos.writebehind.diferidas")
+            .description("Modificaciones aceptadas sin escribir en el almacén")
+            .register(meterRegistry);
+    this.descartados =
+        Counter.builder("pedidos.writebehind.descartados")
+            .description("Eventos acumulados que no se pudieron reaplicar tras un conflicto")
+            .register(meterRegistry);
+    Gauge.builder("pedidos.writebehind.pendientes", buzones, Map::size)
+        .description("Pedidos con modificaciones sin volcar")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Reaplica lo que quedó en el diario tras una caída; se llama una vez, antes de dar servicio
+   *
+   * <p>Solo valen las entradas anotadas sobre la versión que el pedido tiene hoy en el almacén: las
+   * demás ya se volcaron. Si algún pedido falla, el diario se conserva para el próximo arranque.
+   */
+  public void recuperar() {
+    Map<PedidoId, List<DiarioEventosPendientes.Entrada>> porPedido = new LinkedHashMap<>();
+    for (DiarioEventosPendientes.Entrada entrada : diario.leer()) {
+      porPedido.computeIfAbsent(entrada.evento().pedidoId(), id -> new ArrayList<>()).add(entrada);
+    }
+    boolean completo = true;
+    int recuperados = 0;
+    for (Map.Entry<PedidoId, List<DiarioEventosPendientes.Entrada>> pedido : porPedido.entrySet()) {
+      try {
+        if (recuperar(pedido.getKey(), pedido.getValue())) {
+          recuperados++;
+        }
+      } catch (RuntimeException e) {
+        completo = false;
+        log.error("No se pudo recuperar el pedido {} del diario", pedido.getKey().getValue(), e);
+      }
+    }
+    if (!porPedido.isEmpty()) {
+      log.info("Diario de escritura diferida: {} pedidos recuperados", recuperados);
+    }
+    if (completo) {
+      diario.vaciarSi(buzones::isEmpty);
+    }
+  }
+
+  private boolean recuperar(PedidoId pedidoId, List<DiarioEventosPendientes.Entrada> entradas) {
+    Optional<Pedido> actual = delegate.findById(pedidoId);
+    if (actual.isEmpty() || actual.get().getEstado() != EstadoPedido.PENDIENTE) {
+      return false;
+    }
+    Long version = actual.get().getVersion();
+    List<EventoPedido> eventos =
+        entradas.stream()
+            .filter(entrada -> version != null && entrada.versionAlmacen() == version)
+            .map(DiarioEventosPendientes.Entrada::evento)
+            .toList();
+    if (eventos.isEmpty()) {
+      return false;
+    }
+    delegate.save(aplicarPendientes(actual.get(), eventos));
+    return true;
+  }
+
+  // ========== LECTURAS: primero el buzón, si lo hay ==========
+
+  @Override
+  public Optional<Pedido> findById(PedidoId pedidoId) {
+    Buzon buzon = buzones.get(pedidoId);
+    if (buzon != null) {
+      buzon.cerrojo.lock();
+      try {
+        if (buzon.activo()) {
+          return Optional.of(buzon.pedido());
+        }
+      } finally {
+        buzon.cerrojo.unlock();
+      }
+    }
+    return delegate.findById(pedidoId);
+  }
+
+  @Override
+  public boolean existsById(PedidoId pedidoId) {
+    Buzon buzon = buzones.get(pedidoId);
+    if (buzon != null) {
+      buzon.cerrojo.lock();
+      try {
+        if (buzon.activo()) {
+          return true;
+        }
+      } finally {
+        buzon.cerrojo.unlock();
+      }
+    }
+    return delegate.existsById(pedidoId);
+  }
+
+  /** El estado está en la cabecera del registro: no hace falta decodificar el pedido */
+  @Override
+  public Optional<EstadoPedido> findEstadoById(PedidoId pedidoId) {
+    Buzon buzon = buzones.get(pedidoId);
+    if (buzon != null) {
+      buzon.cerrojo.lock();
+      try {
+        if (buzon.activo()) {
+          return Optional.of(codec.leerEstado(ByteBuffer.wrap(buzon.estado)));
+        }
+      } finally {
+        buzon.cerrojo.unlock();
+      }
+    }
+    return delegate.findEstadoById(pedidoId);
+  }
+
+  /** Buzón con eventos sin volcar: pedido_resumen aún no los refleja */
+  @Override
+  public boolean tieneCambiosSinGuardar(PedidoId pedidoId) {
+    Buzon buzon = buzones.get(pedidoId);
+    if (buzon == null) {
+      return false;
+    }
+    buzon.cerrojo.lock();
+    try {
+      return buzon.activo() && !buzon.pendientes.isEmpty();
+    } finally {
+      buzon.cerrojo.unlock();
+    }
+  }
+
+  // ========== ESCRITURAS ==========
+
+  /**
+   * Aplica la modificación en el buzón del pedido (un escritor cada vez) sobre una copia de su
+   * estado: si la modificación falla, el buzón queda como estaba
+   */
+  @Override
+  public Optional<Pedido> modificar(PedidoId pedidoId, Consumer<Pedido> modificacion) {
+    while (true) {
+      Buzon buzon = buzones.computeIfAbsent(pedidoId, Buzon::new);
+      buzon.cerrojo.lock();
+      try {
+        if (buzon.cerrado) {
+          continue; // Se volcó y retiró mientras esperábamos: otro buzón
+        }
+        return modificar(buzon, modificacion);
+      } finally {
+        if (!buzon.cerrado && buzon.pendientes.isEmpty()) {
+          retirar(buzon); // Nada acumulado (no existe, no hubo cambios o falló)
+        }
+        buzon.cerrojo.unlock();
+      }
+    }
+  }
+
+  private Optional<Pedido> modificar(Buzon buzon, Consumer<Pedido> modificacion) {
+    if (buzon.estado == null) {
+      Optional<Pedido> leido = delegate.findById(buzon.pedidoId);
+      if (leido.isEmpty()) {
+        return Optional.empty();
+      }
+      buzon.estado = codec.codificar(leido.get());
+    }
+    Pedido pedido = buzon.pedido();
+    modificacion.accept(pedido);
+    List<EventoPedido> nuevos = pedido.getEventosPendientes();
+    if (nuevos.isEmpty()) {
+      return Optional.of(pedido);
+    }
+    pedido.limpiarEventos();
+
+    int previos = buzon.pendientes.size();
+    if (pedido.getEstado() != EstadoPedido.PENDIENTE || previos + nuevos.size() >= maxEventos) {
+      // Completar, cancelar o buzón lleno: se escribe ya, con todo lo acumulado
+      buzon.pendientes.addAll(nuevos);
+      try {
+        return Optional.of(volcar(buzon, pedido, "sincrono"));
+      } catch (RuntimeException e) {
+        // Esta modificación no se aplicó; lo acumulado antes sigue pendiente
+        buzon.pendientes.subList(previos, buzon.pendientes.size()).clear();
+        if (e instanceof ConflictoDeConcurrenciaException && previos > 0) {
+          reconciliarOReprogramar(buzon);
+        }
+        throw e;
+      }
+    }
+
+    // El diario va antes que la respuesta: lo confirmado al cliente sobrevive a una caída
+    diario.anotar(pedido.getVersion(), nuevos);
+    buzon.pendientes.addAll(nuevos);
+    buzon.estado = codec.codificar(pedido);
+    diferidas.increment();
+    if (!buzon.programado) {
+      programar(buzon, ventana);
+    }
+    return Optional.of(pedido);
+  }
+
+  /**
+   * Save directo. Con un buzón activo, los eventos del pedido se suman a lo acumulado y se guarda
+   * todo con un único save: volcar primero y guardar después fallaría siempre, porque el volcado
+   * sube la versión del almacén y el pedido recibido trae la anterior.
+   */
+  @Override
+  public Pedido save(Pedido pedido) {
+    Buzon buzon = buzones.get(pedido.getId());
+    if (buzon == null) {
+      return delegate.save(pedido);
+    }
+    buzon.cerrojo.lock();
+    try {
+      if (buzon.cerrado || buzon.pendientes.isEmpty()) {
+        return delegate.save(pedido);
+      }
+      Pedido acumulado = buzon.pedido();
+      if (!Objects.equals(acumulado.getVersion(), pedido.getVersion())) {
+        throw new ConflictoDeConcurrenciaException(
+            "El pedido " + pedido.getId().getValue() + " fue modificado por otra operación");
+      }
+      List<EventoPedido> nuevos = pedido.getEventosPendientes();
+      int previos = buzon.pendientes.size();
+      buzon.pendientes.addAll(nuevos);
+      try {
+        Pedido guardado =
+            volcar(
+                buzon,
+                PedidoFactory.recrearPedidoDesdeEventos(acumulado, nuevos, acumulado.getVersion()),
+                "save");
+        pedido.limpiarEventos();
+        return guardado;
+      } catch (RuntimeException e) {
+        // Como en modificar: el save no se aplicó y lo acumulado sigue pendiente
+        buzon.pendientes.subList(previos, buzon.pendientes.size()).clear();
+        if (e instanceof ConflictoDeConcurrenciaException) {
+          reconciliarOReprogramar(buzon);
+        }
+        throw e;
+      }
+    } finally {
+      buzon.cerrojo.unlock();
+    }
+  }
+
+  @Override
+  public void deleteById(PedidoId pedidoId) {
+    Buzon buzon = buzones.get(pedidoId);
+    if (buzon != null) {
+      buzon.cerrojo.lock();
+      try {
+        buzon.pendientes.clear();
+        retirar(buzon);
+      } finally {
+        buzon.cerrojo.unlock();
+      }
+    }
+    delegate.deleteById(pedidoId);
+  }
+
+  // ========== VOLCADO ==========
+
+  /** Un único save con el estado y los eventos acumulados; retira el buzón (cerrojo tomado) */
+  private Pedido volcar(Buzon buzon, Pedido estado, String motivo) {
+    Pedido guardado =
+        delegate.save(PedidoFactory.conEventosPendientes(estado, List.copyOf(buzon.pendientes)));
+    buzon.pendientes.clear();
+    retirar(buzon);
+    volcados(motivo).increment();
+    return guardado;
+  }
+
+  private void programar(Buzon buzon, Duration espera) {
+    buzon.programado = true;
+    programador.schedule(() -> volcarDiferido(buzon), espera.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  private void volcarDiferido(Buzon buzon) {
+    buzon.cerrojo.lock();
+    try {
+      buzon.programado = false;
+      if (buzon.cerrado || buzon.pendientes.isEmpty()) {
+        return;
+      }
+      try {
+        volcar(buzon, buzon.pedido(), "ventana");
+      } catch (ConflictoDeConcurrenciaException e) {
+        reconciliarOReprogramar(buzon);
+      } catch (RuntimeException e) {
+        // Almacén no disponible: lo acumulado sigue en memoria y en el diario
+        log.warn(
+            "No se pudo volcar el pedido {}, se reintentará: {}",
+            buzon.pedidoId.getValue(),
+            e.getMessage());
+        programar(buzon, reintento);
+      }
+    } finally {
+      buzon.cerrojo.unlock();
+    }
+  }
+
+  private void reconciliarOReprogramar(Buzon buzon) {
+    try {
+      reconciliar(buzon);
+    } catch (RuntimeException e) {
+      log.warn(
+          "No se pudo reconciliar el pedido {}, se reintentará: {}",
+          buzon.pedidoId.getValue(),
+          e.getMessage());
+      if (!buzon.programado) {
+        programar(buzon, reintento);
+      }
+    }
+  }
+
+  /**
+   * Otro escritor cambió el pedido en el almacén: los eventos acumulados se reaplican sobre la
+   * versión actual, si sigue PENDIENTE. Si no, se descartan (y se registra).
+   */
+  private void reconciliar(Buzon buzon) {
+    Optional<Pedido> actual = delegate.findById(buzon.pedidoId);
+    if (actual.isPresent() && actual.get().getEstado() == EstadoPedido.PENDIENTE) {
+      // Se anotan otra vez sobre la nueva versión: si caemos antes del save, se recuperan
+      diario.anotar(actual.get().getVersion(), buzon.pendientes);
+      try {
+        delegate.save(aplicarPendientes(actual.get(), List.copyOf(buzon.pendientes)));
+        buzon.pendientes.clear();
+        retirar(buzon);
+        volcados("reconciliado").increment();
+        return;
+      } catch (ConflictoDeConcurrenciaException e) {
+        // Segundo conflicto seguido: se abandona
+      }
+    }
+    log.error(
+        "Pedido {}: se descartan {} eventos acumulados, el pedido cambió en el almacén",
+        buzon.pedidoId.getValue(),
+        buzon.pendientes.size());
+    descartados.increment(buzon.pendientes.size());
+    buzon.pendientes.clear();
+    retirar(buzon);
+  }
+
+  /** Estado leído del almacén + eventos acumulados, que quedan pendientes de guardar */
+  private static Pedido aplicarPendientes(Pedido actual, List<EventoPedido> eventos) {
+    Pedido aplicado = PedidoFactory.recrearPedidoDesdeEventos(actual, eventos, actual.getVersion());
+    return PedidoFactory.conEventosPendientes(aplicado, eventos);
+  }
+
+  private void retirar(Buzon buzon) {
+    buzon.cerrado = true;
+    buzon.estado = null;
+    buzones.remove(buzon.pedidoId, buzon);
+    diario.vaciarSi(buzones::isEmpty);
+    diario.compactar(buzones::containsKey);
+  }
+
+  private Counter volcados(String motivo) {
+    return Counter.builder("pedidos.writebehind.volcados")
+        .description("Saves en el almacén hechos por la escritura diferida")
+        .tag("motivo", motivo)
+        .register(meterRegistry);
+  }
+
+  /** Al parar: se vuelca todo lo pendiente; lo que falle queda en el diario */
+  @Override
+  public void close() {
+    programador.shutdown();
+    for (Buzon buzon : buzones.values()) {
+      buzon.cerrojo.lock();
+      try {
+        if (!buzon.cerrado && !buzon.pendientes.isEmpty()) {
+          volcar(buzon, buzon.pedido(), "cierre");
+        }
+      } catch (RuntimeException e) {
+        log.error("No se pudo volcar el pedido {} al parar", buzon.pedidoId.getValue(), e);
+      } finally {
+        buzon.cerrojo.unlock();
+      }
+    }
+    diario.close();
+  }
+
+  /**
+   * Buzón de un pedido: su estado en memoria y los eventos sin volcar. Todo acceso va con el
+   * cerrojo tomado, así cada pedido tiene un solo escritor. ReentrantLock y no synchronized: el
+   * volcado hace JDBC con el cerrojo tomado y no debe fijar el carrier de un hilo virtual.
+   */
+  private final class Buzon {
+    final PedidoId pedidoId;
+    final ReentrantLock cerrojo = new ReentrantLock();
+    final List<EventoPedido> pendientes = new ArrayList<>();
+    // Pedido codificado, con la versión del almacén; null hasta la primera lectura y al retirarlo
+    byte[] estado;
+    boolean programado;
+    boolean cerrado;
+
+    Buzon(PedidoId pedidoId) {
+      this.pedidoId = pedidoId;
+    }
+
+    boolean activo() {
+      return !cerrado && estado != null;
+    }
+
+    /** Copia nueva del estado: quien la modifique no toca el buzón */
+    Pedido pedido() {
+      return codec.decodificar(ByteBuffer.wrap(estado));
+    }
+  }
+}
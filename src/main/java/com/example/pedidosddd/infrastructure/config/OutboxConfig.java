@@ -0,0 +1,14 @@
+package com.example.pedidosddd.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * CONFIGURACIÓN - Tareas programadas del outbox
+ *
+ * <p>Activa @Scheduled para OutboxRelay. El publicador se elige con pedidos.outbox.publicador
+ * (memoria | fichero).
+ */
+@Configuration
+@EnableScheduling
+public class OutboxConfig {}
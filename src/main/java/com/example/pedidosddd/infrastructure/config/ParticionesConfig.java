@@ -0,0 +1,122 @@
+package com.example.pedidosddd.infrastructure.config;
+
+import com.example.pedidosddd.application.ports.out.PedidoExportPort;
+import com.example.pedidosddd.application.ports.out.PedidoQueryPort;
+import com.example.pedidosddd.application.ports.out.PedidoResumenQueryPort;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.EnrutadorParticiones;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.EsquemaParticiones;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.ParticionadoPedidoExportAdapter;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.ParticionadoPedidoQueryAdapter;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.ParticionadoPedidoResumenQueryAdapter;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.ParticionesDataSource;
+import com.example.pedidosddd.infrastructure.adapters.out.persistence.JpaPedidoExportAdapter;
+import com.example.pedidosddd.infrastructure.adapters.out.persistence.JpaPedidoQueryAdapter;
+import com.example.pedidosddd.infrastructure.adapters.out.resumen.JpaPedidoResumenQueryAdapter;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * CONFIGURACIÓN - Almacén de pedidos particionado por PedidoId
+ *
+ * <p>Con pedidos.particiones.cantidad = 1 (por defecto) solo existe el EnrutadorParticiones, que lo
+ * ejecuta todo en la partición única, y el DataSource es el de Spring Boot. Con N > 1:
+ *
+ * <ul>
+ *   <li>Un pool Hikari por partición (pedidos.particiones.url con {particion}; usuario, contraseña
+ *       y driver de spring.datasource) detrás de un único ParticionesDataSource
+ *   <li>Las tablas de las particiones 1..N-1 se crean al arrancar si ddl-auto las crea
+ *   <li>Repositorio (PedidoRepositoryConfig) y resumen se enrutan a la partición del pedido;
+ *       listados y exportación recorren todas
+ * </ul>
+ */
+@Configuration
+public class ParticionesConfig {
+
+  private static final String PARTICIONADO = "${pedidos.particiones.cantidad:1} > 1";
+
+  @Bean
+  public EnrutadorParticiones enrutadorParticiones(
+      @Value("${pedidos.particiones.cantidad:1}") int cantidad,
+      @Value("${pedidos.particiones.hilos:8}") int hilos) {
+    return new EnrutadorParticiones(cantidad, hilos);
+  }
+
+  @Bean
+  @ConditionalOnExpression(PARTICIONADO)
+  public ParticionesDataSource dataSource(
+      DataSourceProperties propiedades,
+      EnrutadorParticiones enrutador,
+      @Value("${pedidos.particiones.url}") String url,
+      @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+    if (!url.contains("{particion}")) {
+      throw new IllegalStateException("pedidos.particiones.url debe contener {particion}: " + url);
+    }
+    if (openInView) {
+      // La sesión de open-in-view retiene la primera conexión de la petición, sea de la partición
+      // que sea, y las operaciones siguientes la reutilizarían
+      throw new IllegalStateException("Con particiones hace falta spring.jpa.open-in-view=false");
+    }
+    List<DataSource> particiones = new ArrayList<>(enrutador.cantidad());
+    for (int particion = 0; particion < enrutador.cantidad(); particion++) {
+      HikariDataSource pool =
+          propiedades
+              .initializeDataSourceBuilder()
+              .type(HikariDataSource.class)
+              .url(url.replace("{particion}", String.valueOf(particion)))
+              .build();
+      pool.setPoolName("pedidos-particion-" + particion);
+      particiones.add(pool);
+    }
+    return new ParticionesDataSource(enrutador, particiones);
+  }
+
+  @Bean
+  @ConditionalOnExpression(PARTICIONADO)
+  public EsquemaParticiones esquemaParticiones(
+      EntityManagerFactory entityManagerFactory,
+      DataSource dataSource,
+      EnrutadorParticiones enrutador,
+      @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+    EsquemaParticiones esquema =
+        new EsquemaParticiones(entityManagerFactory, dataSource, enrutador);
+    if (List.of("create", "create-drop", "update").contains(ddlAuto)) {
+      esquema.crear();
+    }
+    return esquema;
+  }
+
+  @Bean
+  @Primary
+  @ConditionalOnExpression(PARTICIONADO)
+  public PedidoQueryPort pedidoQueryPortParticionado(
+      JpaPedidoQueryAdapter consultas, EnrutadorParticiones enrutador) {
+    return new ParticionadoPedidoQueryAdapter(consultas, enrutador);
+  }
+
+  @Bean
+  @Primary
+  @ConditionalOnExpression(PARTICIONADO)
+  @Profile("!fichero")
+  public PedidoResumenQueryPort pedidoResumenQueryPortParticionado(
+      JpaPedidoResumenQueryAdapter resumenes, EnrutadorParticiones enrutador) {
+    return new ParticionadoPedidoResumenQueryAdapter(resumenes, enrutador);
+  }
+
+  @Bean
+  @Primary
+  @ConditionalOnExpression(PARTICIONADO)
+  public PedidoExportPort pedidoExportPortParticionado(
+      JpaPedidoExportAdapter exportacion, EnrutadorParticiones enrutador) {
+    return new ParticionadoPedidoExportAdapter(exportacion, enrutador);
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.pedidosddd.infrastructure.config;
+
+import com.example.pedidosddd.application.ports.in.AgregarProductoUseCase;
+import com.example.pedidosddd.application.ports.in.ConsultarPedidoUseCase;
+import com.example.pedidosddd.application.ports.in.ConsultarResumenPedidoUseCase;
+import com.example.pedidosddd.application.ports.in.CrearPedidoUseCase;
+import com.example.pedidosddd.application.usecases.PedidoAsyncUseCasesImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * CONFIGURACIÓN - Ejecutor acotado de los use cases asíncronos
+ *
+ * <p>pedidos.async.hilos fija la concurrencia real contra la base de datos (del orden del pool de
+ * conexiones: más hilos solo esperarían conexión). pedidos.async.cola absorbe los picos; lo que no
+ * cabe se rechaza al momento, como AbortPolicy pero contándolo en pedidos.async.rechazos, en lugar
+ * de acumular latencia.
+ *
+ * <p>El pool no se publica como bean Executor: Spring Boot dejaría de crear su
+ * applicationTaskExecutor. Lo posee PedidoAsyncUseCasesImpl, que lo cierra al parar el contexto.
+ *
+ * <p>Con hilos virtuales (spring.threads.virtual.enabled en Java 21) no hay pool: cada petición ya
+ * tiene su propio hilo virtual y pasarla a 20 hilos de plataforma solo volvería a limitarla. El use
+ * case se ejecuta en el hilo de la petición y el límite es el pool de conexiones.
+ */
+@Configuration
+public class PedidoAsyncConfig {
+
+  @Bean
+  public PedidoAsyncUseCasesImpl pedidoAsyncUseCases(
+      CrearPedidoUseCase crearPedido,
+      AgregarProductoUseCase agregarProducto,
+      ConsultarPedidoUseCase consultarPedido,
+      ConsultarResumenPedidoUseCase consultarResumen,
+      MeterRegistry meterRegistry,
+      Environment environment,
+      @Value("${pedidos.async.hilos:10}") int hilos,
+      @Value("${pedidos.async.cola:500}") int cola) {
+    if (Threading.VIRTUAL.isActive(environment)) {
+      return new PedidoAsyncUseCasesImpl(
+          crearPedido, agregarProducto, consultarPedido, consultarResumen, null);
+    }
+    Counter rechazos =
+        Counter.builder("pedidos.async.rechazos")
+            .description("Trabajos rechazados por tener la cola llena")
+            .register(meterRegistry);
+    ThreadPoolExecutor ejecutor =
+        new ThreadPoolExecutor(
+            hilos,
+            hilos,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(cola),
+            hilosConNombre("pedidos-async-"),
+            (tarea, pool) -> {
+              rechazos.increment();
+              throw new RejectedExecutionException("Cola de pedidos.async llena (" + cola + ")");
+            });
+    // executor.active, executor.queued, executor.pool.size... con name=pedidos.async
+    new ExecutorServiceMetrics(ejecutor, "pedidos.async", Tags.empty()).bindTo(meterRegistry);
+    return new PedidoAsyncUseCasesImpl(
+        crearPedido, agregarProducto, consultarPedido, consultarResumen, ejecutor);
+  }
+
+  private static ThreadFactory hilosConNombre(String prefijo) {
+    AtomicInteger contador = new AtomicInteger();
+    return tarea -> {
+      Thread hilo = new Thread(tarea, prefijo + contador.incrementAndGet());
+      hilo.setDaemon(true);
+      return hilo;
+    };
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.pedidosddd.infrastructure.config;
+
+import com.example.pedidosddd.application.ports.out.PedidoRepositoryPort;
+import com.example.pedidosddd.infrastructure.adapters.out.cache.CachingPedidoRepositoryAdapter;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.DiccionarioNombres;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.InternadoProductos;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.PedidoBinarioCodec;
+import com.example.pedidosddd.infrastructure.adapters.out.eventos.EventoPedidoJsonCodec;
+import com.example.pedidosddd.infrastructure.adapters.out.metricas.MeteredPedidoRepositoryAdapter;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.EnrutadorParticiones;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.EsquemaParticiones;
+import com.example.pedidosddd.infrastructure.adapters.out.particiones.ParticionadoPedidoRepositoryAdapter;
+import com.example.pedidosddd.infrastructure.adapters.out.writebehind.DiarioEventosPendientes;
+import com.example.pedidosddd.infrastructure.adapters.out.writebehind.WriteBehindPedidoRepositoryAdapter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * CONFIGURACIÓN - Composición del puerto de salida PedidoRepositoryPort
+ *
+ * <p>El almacén real (bean con @Qualifier("almacenPedidos")) se envuelve aquí con los decoradores
+ * de infraestructura. Los use cases reciben el bean @Primary y no se enteran de la composición:
+ *
+ * <pre>
+ * [WriteBehindPedidoRepositoryAdapter →] CachingPedidoRepositoryAdapter
+ *     → MeteredPedidoRepositoryAdapter → [ParticionadoPedidoRepositoryAdapter →] almacén real
+ * </pre>
+ *
+ * <p>El enrutado por partición (pedidos.particiones.cantidad > 1) va pegado al almacén: fija la
+ * partición justo antes de su transacción, y las métricas siguen midiendo el almacén entero.
+ *
+ * <p>La escritura diferida (pedidos.write-behind.habilitado, desactivada por defecto) va por fuera
+ * de todo: cada volcado pasa por la caché y se mide como un save más. Spring llama a su close() al
+ * parar, que vuelca lo pendiente.
+ *
+ * <p>InternadoProductos se comparte entre el mapper JPA y el codec de la caché: las dos vías de
+ * carga reutilizan los mismos ProductoId/Producto.
+ */
+@Configuration
+public class PedidoRepositoryConfig {
+
+  @Bean
+  public InternadoProductos internadoProductos(
+      MeterRegistry meterRegistry,
+      @Value("${pedidos.internado.max-productos:20000}") long maxProductos) {
+    return new InternadoProductos(maxProductos, meterRegistry);
+  }
+
+  @Bean
+  @Primary
+  public PedidoRepositoryPort pedidoRepositoryPort(
+      @Qualifier("almacenPedidos") PedidoRepositoryPort almacen,
+      EnrutadorParticiones enrutador,
+      ObjectProvider<EsquemaParticiones> esquemaParticiones,
+      MeterRegistry meterRegistry,
+      InternadoProductos internado,
+      @Value("${pedidos.cache.habilitada:true}") boolean cacheHabilitada,
+      @Value("${pedidos.cache.max-pedidos:10000}") long maxPedidos,
+      @Value("${pedidos.cache.ttl-pendiente:30s}") Duration ttlPendiente,
+      @Value("${pedidos.cache.ttl-finalizado:12h}") Duration ttlFinalizado,
+      @Value("${pedidos.cache.diccionario-max-nombres:65536}") int diccionarioMaxNombres,
+      @Value("${pedidos.write-behind.habilitado:false}") boolean writeBehindHabilitado,
+      @Value("${pedidos.write-behind.ventana:200ms}") Duration ventana,
+      @Value("${pedidos.write-behind.max-eventos:100}") int maxEventos,
+      @Value("${pedidos.write-behind.hilos:2}") int hilos,
+      @Value("${pedidos.write-behind.diario:write-behind-pedidos.ndjson}") Path diario,
+      @Value("${pedidos.write-behind.sincronizar:true}") boolean sincronizar,
+      @Value("${pedidos.write-behind.compactar-desde:4MB}") DataSize compactarDesde,
+      EventoPedidoJsonCodec eventoCodec,
+      ObjectMapper objectMapper) {
+    // El almacén puede llegar como proxy transaccional: la etiqueta usa la clase real
+    String nombreAlmacen = ClassUtils.getUserClass(almacen).getSimpleName();
+    PedidoRepositoryPort compuesto = almacen;
+    if (enrutador.cantidad() > 1) {
+      // Las tablas de todas las particiones tienen que existir antes de recuperar el diario
+      esquemaParticiones.getIfAvailable();
+      compuesto = new ParticionadoPedidoRepositoryAdapter(almacen, enrutador);
+    }
+    compuesto = new MeteredPedidoRepositoryAdapter(compuesto, nombreAlmacen, meterRegistry);
+    if (cacheHabilitada) {
+      // Diccionario propio de la caché: los registros cacheados nunca salen de este proceso
+      PedidoBinarioCodec codec =
+          new PedidoBinarioCodec(new DiccionarioNombres(diccionarioMaxNombres), internado);
+      compuesto =
+          new CachingPedidoRepositoryAdapter(
+              compuesto, codec, maxPedidos, ttlPendiente, ttlFinalizado, meterRegistry);
+    }
+    if (!writeBehindHabilitado) {
+      return compuesto;
+    }
+    WriteBehindPedidoRepositoryAdapter writeBehind =
+        new WriteBehindPedidoRepositoryAdapter(
+            compuesto,
+            new DiarioEventosPendientes(
+                diario, sincronizar, compactarDesde.toBytes(), eventoCodec, objectMapper),
+            ventana,
+            maxEventos,
+            hilos,
+            meterRegistry);
+    // Lo que quedó en el diario tras una caída se guarda antes de atender peticiones
+    writeBehind.recuperar();
+    return writeBehind;
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.pedidosddd.infrastructure.config;
+
+import com.example.pedidosddd.application.ports.out.ProductoCatalogPort;
+import com.example.pedidosddd.infrastructure.adapters.out.catalogo.CachingProductoCatalogAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * CONFIGURACIÓN - Composición del puerto de salida ProductoCatalogPort
+ *
+ * <p>Igual que PedidoRepositoryConfig: el almacén (bean con @Qualifier("almacenCatalogo"), JPA o
+ * memoria según pedidos.catalogo.almacen) se envuelve con la near-cache.
+ */
+@Configuration
+public class ProductoCatalogConfig {
+
+  @Bean
+  @Primary
+  public ProductoCatalogPort productoCatalogPort(
+      @Qualifier("almacenCatalogo") ProductoCatalogPort almacen,
+      MeterRegistry meterRegistry,
+      @Value("${pedidos.catalogo.cache.habilitada:true}") boolean cacheHabilitada,
+      @Value("${pedidos.catalogo.cache.max-productos:100000}") long maxProductos,
+      @Value("${pedidos.catalogo.cache.ttl:60s}") Duration ttl) {
+    if (!cacheHabilitada) {
+      return almacen;
+    }
+    return new CachingProductoCatalogAdapter(almacen, maxProductos, ttl, meterRegistry);
+  }
+}
@@ -0,0 +1,50 @@
+-- 🐘 PostgreSQL: pedidos_archivo particionada por mes de fecha_actualizacion
+--
+-- Con ddl-auto create/update Hibernate crea pedidos_archivo como una tabla normal. Para tenerla
+-- particionada, crearla con este script antes de arrancar y usar ddl-auto validate o none:
+--   psql -U pedidos_user -d pedidosdb -f archivo-pedidos-particionado.sql
+--
+-- La clave primaria tiene que incluir la columna de partición; la aplicación sigue buscando por
+-- pedido_id (un índice por partición). Cada mes antiguo se puede separar con
+--   ALTER TABLE pedidos_archivo DETACH PARTITION pedidos_archivo_AAAA_MM;
+-- y moverse a otro tablespace o borrarse sin tocar el resto.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS pedidos_archivo (
+  pedido_id uuid NOT NULL,
+  estado varchar(20) NOT NULL,
+  fecha_actualizacion timestamp(6) NOT NULL,
+  archivado_en timestamp(6) NOT NULL,
+  datos bytea NOT NULL,
+  PRIMARY KEY (pedido_id, fecha_actualizacion)
+) PARTITION BY RANGE (fecha_actualizacion);
+
+-- datos ya va comprimido (Deflate): EXTERNAL evita que TOAST intente comprimirlo otra vez
+ALTER TABLE pedidos_archivo ALTER COLUMN datos SET STORAGE EXTERNAL;
+
+CREATE INDEX IF NOT EXISTS idx_pedidos_archivo_actualizacion
+  ON pedidos_archivo (fecha_actualizacion);
+
+-- Un mes por partición: los 36 meses anteriores y los 12 siguientes; lo demás cae en la DEFAULT
+DO $$
+DECLARE
+  mes date;
+BEGIN
+  FOR mes IN
+    SELECT generate_series(
+      date_trunc('month', now()) - interval '36 months',
+      date_trunc('month', now()) + interval '12 months',
+      interval '1 month')::date
+  LOOP
+    EXECUTE format(
+      'CREATE TABLE IF NOT EXISTS %I PARTITION OF pedidos_archivo FOR VALUES FROM (%L) TO (%L)',
+      'pedidos_archivo_' || to_char(mes, 'YYYY_MM'),
+      mes,
+      (mes + interval '1 month')::date);
+  END LOOP;
+END $$;
+
+CREATE TABLE IF NOT EXISTS pedidos_archivo_default PARTITION OF pedidos_archivo DEFAULT;
+
+COMMIT;
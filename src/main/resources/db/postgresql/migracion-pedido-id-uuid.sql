@@ -0,0 +1,49 @@
+-- 🐘 Migración PostgreSQL: pedidos.id y pedido_items.pedido_id de VARCHAR a uuid nativo
+--
+-- Para bases creadas antes de que PedidoEntity.id fuera UUID (ddl-auto no cambia el tipo de una
+-- columna existente). Ejecutar con la aplicación parada:
+--   psql -U pedidos_user -d pedidosdb -f migracion-pedido-id-uuid.sql
+--
+-- Los ids existentes son UUID v4 en texto y se convierten tal cual; los nuevos serán v7.
+-- Todo en una transacción: si algún id no es un UUID válido no se cambia nada.
+
+BEGIN;
+
+-- 1. Comprobación previa: ids que no se pueden convertir (debe devolver 0 filas)
+DO $$
+DECLARE
+  invalidos integer;
+BEGIN
+  SELECT count(*) INTO invalidos FROM pedidos
+   WHERE id !~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$';
+  IF invalidos > 0 THEN
+    RAISE EXCEPTION '% pedidos tienen un id que no es UUID, revisarlos antes de migrar', invalidos;
+  END IF;
+END $$;
+
+-- 2. La clave foránea de pedido_items (nombre generado por Hibernate) impide cambiar los tipos
+DO $$
+DECLARE
+  fk text;
+BEGIN
+  FOR fk IN
+    SELECT conname FROM pg_constraint
+     WHERE conrelid = 'pedido_items'::regclass AND contype = 'f'
+  LOOP
+    EXECUTE format('ALTER TABLE pedido_items DROP CONSTRAINT %I', fk);
+  END LOOP;
+END $$;
+
+-- 3. Cambio de tipo (reescribe las tablas y sus índices con claves de 16 bytes)
+ALTER TABLE pedidos ALTER COLUMN id TYPE uuid USING id::uuid;
+ALTER TABLE pedido_items ALTER COLUMN pedido_id TYPE uuid USING pedido_id::uuid;
+
+-- 4. Restaurar la clave foránea
+ALTER TABLE pedido_items
+  ADD CONSTRAINT fk_pedido_items_pedido FOREIGN KEY (pedido_id) REFERENCES pedidos (id);
+
+COMMIT;
+
+-- 5. Fuera de la transacción: estadísticas para el planificador
+ANALYZE pedidos;
+ANALYZE pedido_items;
@@ -0,0 +1,31 @@
+-- 🐘 Migración PostgreSQL: ids de pedido_items y pedido_eventos de IDENTITY a secuencias pooled
+--
+-- Para bases creadas cuando PedidoItemEntity/PedidoEventoEntity usaban IDENTITY. ddl-auto crearía
+-- las secuencias empezando en 1 y chocarían con los ids existentes. Ejecutar con la aplicación
+-- parada:
+--   psql -U pedidos_user -d pedidosdb -f migracion-secuencias-pooled.sql
+--
+-- INCREMENT BY debe coincidir con allocationSize (50) de @SequenceGenerator.
+
+BEGIN;
+
+-- Solo las tablas que existan (pedido_eventos solo aparece si se usó el perfil eventsourcing)
+DO $$
+DECLARE
+  tabla text;
+  siguiente bigint;
+BEGIN
+  FOREACH tabla IN ARRAY ARRAY['pedido_items', 'pedido_eventos'] LOOP
+    IF to_regclass(tabla) IS NOT NULL THEN
+      EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', tabla || '_seq');
+      -- El optimizador pooled toma el valor de nextval como el TECHO del bloque y reparte
+      -- (valor - 49)..valor. Con max(id) + 1 el primer bloque empezaría en max(id) - 48 y
+      -- chocaría con las últimas filas; con max(id) + 50 empieza justo en max(id) + 1.
+      EXECUTE format('SELECT COALESCE(max(id), 0) + 50 FROM %I', tabla) INTO siguiente;
+      PERFORM setval(tabla || '_seq', siguiente, false);
+    END IF;
+  END LOOP;
+END $$;
+
+-- La columna conserva su DEFAULT de identidad, pero Hibernate ya siempre envía el id
+COMMIT;
@@ -0,0 +1,71 @@
+package com.example.pedidosddd.application.usecases;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.pedidosddd.application.ports.in.RegistrarProductoUseCase.RegistrarProductoCommand;
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
+import com.example.pedidosddd.application.ports.out.ProductoCatalogPort;
+import com.example.pedidosddd.domain.model.Producto;
+import com.example.pedidosddd.domain.model.ProductoId;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class ProductoUseCasesImplTest {
+
+  private static final RegistrarProductoCommand TECLADO =
+      new RegistrarProductoCommand(new ProductoId("SKU-1"), "Teclado", new BigDecimal("49.90"));
+
+  @Test
+  void conflictoConOtraAltaSeReintentaSobreLaFilaNueva() {
+    CatalogoConConflictos catalogo = new CatalogoConConflictos(1);
+
+    long version = new ProductoUseCasesImpl(catalogo).registrarProducto(TECLADO);
+
+    assertThat(catalogo.saves).isEqualTo(2);
+    assertThat(version).isEqualTo(1L);
+  }
+
+  @Test
+  void conflictoTrasReintentarLlegaAlAdaptadorDeEntrada() {
+    CatalogoConConflictos catalogo = new CatalogoConConflictos(Integer.MAX_VALUE);
+
+    assertThatThrownBy(() -> new ProductoUseCasesImpl(catalogo).registrarProducto(TECLADO))
+        .isInstanceOf(ConflictoDeConcurrenciaException.class);
+    assertThat(catalogo.saves).isEqualTo(ProductoUseCasesImpl.MAX_INTENTOS);
+  }
+
+  /** Los primeros saves chocan con otra operación, como dos PUT simultáneos del mismo SKU */
+  private static final class CatalogoConConflictos implements ProductoCatalogPort {
+
+    private final int conflictos;
+    int saves;
+
+    CatalogoConConflictos(int conflictos) {
+      this.conflictos = conflictos;
+    }
+
+    @Override
+    public Optional<ProductoCatalogado> findById(ProductoId productoId) {
+      return Optional.empty();
+    }
+
+    @Override
+    public Map<ProductoId, ProductoCatalogado> findAllById(Collection<ProductoId> productoIds) {
+      return Map.of();
+    }
+
+    @Override
+    public ProductoCatalogado save(Producto producto) {
+      saves++;
+      if (saves <= conflictos) {
+        throw new ConflictoDeConcurrenciaException("Producto " + producto.getId().getValue());
+      }
+      // La otra operación dejó la fila en la versión 0; este save la sube a 1
+      return new ProductoCatalogado(producto, 1L);
+    }
+  }
+}
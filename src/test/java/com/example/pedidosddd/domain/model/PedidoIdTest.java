@@ -0,0 +1,36 @@
+package com.example.pedidosddd.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PedidoIdTest {
+
+  @Test
+  void cualquierEscrituraDelMismoUuidEsElMismoId() {
+    PedidoId canonico = new PedidoId("0192f0c4-7a3b-7c2d-9e1f-a1b2c3d4e5f6");
+    PedidoId mayusculas = new PedidoId("0192F0C4-7A3B-7C2D-9E1F-A1B2C3D4E5F6");
+
+    assertThat(mayusculas).isEqualTo(canonico).hasSameHashCodeAs(canonico);
+    assertThat(mayusculas.getValue()).isEqualTo("0192f0c4-7a3b-7c2d-9e1f-a1b2c3d4e5f6");
+    assertThat(mayusculas.toUuid()).isEqualTo(canonico.toUuid());
+  }
+
+  @Test
+  void desdeUuidEsElMismoIdQueDesdeTexto() {
+    PedidoId nuevo = new PedidoId();
+
+    assertThat(new PedidoId(nuevo.toUuid())).isEqualTo(nuevo);
+    assertThat(new PedidoId(UUID.fromString(nuevo.getValue()))).isEqualTo(nuevo);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"pedido-1", "1-2-3-4-5", "0192f0c4-7a3b-7c2d-9e1f-a1b2c3d4e5fz", " "})
+  void loQueNoEsUnUuidSeRechaza(String valor) {
+    assertThatThrownBy(() -> new PedidoId(valor)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
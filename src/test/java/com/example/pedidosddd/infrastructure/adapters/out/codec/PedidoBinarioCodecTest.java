@@ -0,0 +1,182 @@
+package com.example.pedidosddd.infrastructure.adapters.out.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoFactory;
+import com.example.pedidosddd.domain.model.PedidoItem;
+import com.example.pedidosddd.domain.model.Producto;
+import com.example.pedidosddd.domain.model.ProductoId;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Ida y vuelta por PedidoBinarioCodec: el pedido decodificado cumple los invariantes del dominio
+ */
+class PedidoBinarioCodecTest {
+
+  private static final Producto TECLADO =
+      new Producto(new ProductoId("SKU-1"), "Teclado", new BigDecimal("49.90"));
+  private static final Producto RATON =
+      new Producto(new ProductoId("SKU-2"), "Ratón", new BigDecimal("19.5"));
+
+  private final PedidoBinarioCodec codec = new PedidoBinarioCodec();
+
+  @Test
+  void pedidoVacio() {
+    Pedido pedido = PedidoFactory.crearNuevoPedido();
+
+    Pedido decodificado = idaYVuelta(codec, pedido);
+
+    assertIgual(decodificado, pedido);
+    assertThat(decodificado.getItems()).isEmpty();
+    assertThat(decodificado.calcularTotal()).isEqualByComparingTo(BigDecimal.ZERO);
+    assertThat(decodificado.getVersion()).isNull();
+  }
+
+  @Test
+  void mismoProductoDosVecesEsUnaSolaLinea() {
+    Pedido pedido = PedidoFactory.crearNuevoPedido();
+    pedido.agregarProducto(TECLADO, 1);
+    pedido.agregarProducto(RATON, 2);
+    pedido.agregarProducto(TECLADO, 3);
+
+    Pedido decodificado = idaYVuelta(codec, pedido);
+
+    assertIgual(decodificado, pedido);
+    assertThat(decodificado.getItems()).hasSize(2);
+    assertThat(decodificado.getItem(TECLADO.getId()).orElseThrow().getCantidad()).isEqualTo(4);
+    assertThat(decodificado.calcularTotal()).isEqualByComparingTo("238.60");
+  }
+
+  @Test
+  void lineasRepetidasAlRecrearSeFusionan() {
+    Pedido original = PedidoFactory.crearNuevoPedido();
+    Pedido pedido =
+        PedidoFactory.recrearPedidoDesdeRepositorio(
+            original.getId(),
+            List.of(new PedidoItem(RATON, 1), new PedidoItem(RATON, 2)),
+            EstadoPedido.PENDIENTE,
+            original.getFechaCreacion(),
+            original.getFechaActualizacion(),
+            null,
+            7L);
+
+    Pedido decodificado = idaYVuelta(codec, pedido);
+
+    assertThat(decodificado.getItems()).hasSize(1);
+    assertThat(decodificado.getItems().get(0).getCantidad()).isEqualTo(3);
+    assertThat(decodificado.calcularTotal()).isEqualByComparingTo("58.5");
+    assertThat(decodificado.getVersion()).isEqualTo(7L);
+  }
+
+  @ParameterizedTest
+  @EnumSource(EstadoPedido.class)
+  void cadaEstado(EstadoPedido estado) {
+    Pedido pedido = PedidoFactory.crearNuevoPedido();
+    pedido.agregarProducto(TECLADO, 2);
+    pedido.agregarProducto(RATON, 1);
+    if (estado == EstadoPedido.COMPLETADO) {
+      pedido.completarPedido();
+    } else if (estado == EstadoPedido.CANCELADO) {
+      pedido.cancelarPedido();
+    }
+    byte[] datos = codec.codificar(pedido, 3L);
+
+    Pedido decodificado = codec.decodificar(ByteBuffer.wrap(datos));
+
+    assertThat(decodificado.getEstado()).isEqualTo(estado);
+    assertThat(decodificado.getVersion()).isEqualTo(3L);
+    assertThat(codec.leerEstado(ByteBuffer.wrap(datos))).isEqualTo(estado);
+    assertThat(codec.leerVersion(ByteBuffer.wrap(datos))).isEqualTo(3L);
+    assertThat(codec.leerId(ByteBuffer.wrap(datos))).isEqualTo(pedido.getId());
+    assertThat(codec.mismoId(ByteBuffer.wrap(datos), pedido.getId())).isTrue();
+    assertIgual(decodificado, pedido);
+  }
+
+  @Test
+  void conDiccionarioSoloDecodificaElMismoDiccionario() {
+    PedidoBinarioCodec conDiccionario = new PedidoBinarioCodec(new DiccionarioNombres(16));
+    Pedido pedido = PedidoFactory.crearNuevoPedido();
+    pedido.agregarProducto(TECLADO, 1);
+    pedido.agregarProducto(RATON, 5);
+    byte[] datos = conDiccionario.codificar(pedido);
+
+    assertIgual(conDiccionario.decodificar(ByteBuffer.wrap(datos)), pedido);
+    assertThat(datos.length).isLessThan(codec.codificar(pedido).length);
+    assertThatThrownBy(() -> codec.decodificar(ByteBuffer.wrap(datos)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void diccionarioLlenoEscribeEnLinea() {
+    PedidoBinarioCodec conDiccionario = new PedidoBinarioCodec(new DiccionarioNombres(1));
+    Pedido pedido = PedidoFactory.crearNuevoPedido();
+    pedido.agregarProducto(TECLADO, 1);
+    pedido.agregarProducto(RATON, 1);
+
+    assertIgual(idaYVuelta(conDiccionario, pedido), pedido);
+  }
+
+  @Test
+  void decodificaDesdeUnaPosicionSinMoverla() {
+    Pedido pedido = PedidoFactory.crearNuevoPedido();
+    pedido.agregarProducto(RATON, 1);
+    byte[] datos = codec.codificar(pedido);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(datos.length + 5);
+    buffer.position(5);
+    buffer.put(datos);
+    buffer.position(5);
+
+    assertIgual(codec.decodificar(buffer), pedido);
+    assertThat(buffer.position()).isEqualTo(5);
+  }
+
+  @Test
+  void formatoDesconocidoSeRechaza() {
+    byte[] datos = codec.codificar(PedidoFactory.crearNuevoPedido());
+    datos[0] = (byte) (PedidoBinarioCodec.FORMATO_V1 + 1);
+
+    assertThatThrownBy(() -> codec.decodificar(ByteBuffer.wrap(datos)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("no soportado");
+    assertThatThrownBy(() -> codec.leerId(ByteBuffer.wrap(datos)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> codec.leerVersion(ByteBuffer.wrap(datos)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static Pedido idaYVuelta(PedidoBinarioCodec codec, Pedido pedido) {
+    return codec.decodificar(ByteBuffer.wrap(codec.codificar(pedido)));
+  }
+
+  /** Mismo estado observable: id, estado, fechas, versión, líneas en orden y total */
+  private static void assertIgual(Pedido decodificado, Pedido original) {
+    assertThat(decodificado.getId()).isEqualTo(original.getId());
+    assertThat(decodificado.getEstado()).isEqualTo(original.getEstado());
+    assertThat(decodificado.getFechaCreacion()).isEqualTo(original.getFechaCreacion());
+    assertThat(decodificado.getFechaActualizacion()).isEqualTo(original.getFechaActualizacion());
+    assertThat(decodificado.getItems()).hasSameSizeAs(original.getItems());
+    for (int i = 0; i < original.getItems().size(); i++) {
+      PedidoItem esperado = original.getItems().get(i);
+      PedidoItem item = decodificado.getItems().get(i);
+      assertThat(item.getProducto().getId()).isEqualTo(esperado.getProducto().getId());
+      assertThat(item.getProducto().getNombre()).isEqualTo(esperado.getProducto().getNombre());
+      // Misma escala incluida: el codec guarda escala y valor sin escala
+      assertThat(item.getPrecioUnitario()).isEqualTo(esperado.getPrecioUnitario());
+      assertThat(item.getCantidad()).isEqualTo(esperado.getCantidad());
+    }
+    assertThat(decodificado.calcularTotal()).isEqualTo(original.calcularTotal());
+    BigDecimal suma =
+        decodificado.getItems().stream()
+            .map(PedidoItem::getTotal)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    assertThat(decodificado.calcularTotal()).isEqualByComparingTo(suma);
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.pedidosddd.infrastructure.adapters.out.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoFactory;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.domain.model.PedidoItem;
+import com.example.pedidosddd.domain.model.Producto;
+import com.example.pedidosddd.domain.model.ProductoId;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Sentencias JDBC de guardar un pedido grande: con la secuencia pooled y los lotes JDBC los items
+ * van en bloques de 50, no una sentencia (más un SELECT de la clave) por línea
+ */
+@SpringBootTest(
+    properties = {
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "spring.jpa.show-sql=false",
+      "pedidos.outbox.relay-habilitado=false"
+    })
+class JpaPedidoRepositoryAdapterLotesTest {
+
+  private static final int LINEAS = 500;
+
+  @Autowired private JpaPedidoRepositoryAdapter adapter;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  void pedidoDe500LineasSeGuardaEnLotes() {
+    // Pedido sin eventos pendientes (como uno importado): solo cuentan pedido, items y resumen
+    List<PedidoItem> items = new ArrayList<>();
+    for (int i = 0; i < LINEAS; i++) {
+      Producto producto =
+          new Producto(new ProductoId("SKU-LOTE-" + i), "Producto " + i, new BigDecimal("1.25"));
+      items.add(new PedidoItem(producto, 1));
+    }
+    LocalDateTime ahora = LocalDateTime.now();
+    Pedido pedido =
+        PedidoFactory.recrearPedidoDesdeRepositorio(
+            new PedidoId(), items, EstadoPedido.PENDIENTE, ahora, ahora, null, null);
+    Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    estadisticas.clear();
+
+    adapter.save(pedido);
+
+    assertThat(estadisticas.getEntityStatistics(PedidoItemEntity.class.getName()).getInsertCount())
+        .isEqualTo(LINEAS);
+    // Fila a fila serían más de 500; con lotes de 50 son 15 en H2 (SELECT e INSERT del pedido, 10
+    // lotes de items, resumen y secuencia). Margen para cambios de dialecto, no para perder lotes
+    assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(20);
+  }
+}
@@ -0,0 +1,164 @@
+package com.example.pedidosddd.infrastructure.adapters.out.writebehind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.pedidosddd.application.ports.in.ConsultarResumenPedidoUseCase.ResumenPedido;
+import com.example.pedidosddd.application.ports.out.ConflictoDeConcurrenciaException;
+import com.example.pedidosddd.application.ports.out.PedidoRepositoryPort;
+import com.example.pedidosddd.application.usecases.PedidoUseCasesImpl;
+import com.example.pedidosddd.domain.model.EstadoPedido;
+import com.example.pedidosddd.domain.model.Pedido;
+import com.example.pedidosddd.domain.model.PedidoFactory;
+import com.example.pedidosddd.domain.model.PedidoId;
+import com.example.pedidosddd.domain.model.Producto;
+import com.example.pedidosddd.domain.model.ProductoId;
+import com.example.pedidosddd.infrastructure.adapters.out.codec.PedidoBinarioCodec;
+import com.example.pedidosddd.infrastructure.adapters.out.eventos.EventoPedidoJsonCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteBehindPedidoRepositoryAdapterTest {
+
+  private static final Producto TECLADO =
+      new Producto(new ProductoId("SKU-1"), "Teclado", new BigDecimal("49.90"));
+  private static final Producto RATON =
+      new Producto(new ProductoId("SKU-2"), "Ratón", new BigDecimal("19.50"));
+
+  @TempDir Path directorio;
+
+  private final AlmacenEnMemoria almacen = new AlmacenEnMemoria();
+  private DiarioEventosPendientes diario;
+  private WriteBehindPedidoRepositoryAdapter writeBehind;
+
+  @AfterEach
+  void cerrar() {
+    if (writeBehind != null) {
+      writeBehind.close();
+    }
+  }
+
+  @Test
+  void saveConBuzonActivoGuardaLoAcumuladoYLoNuevoDeUnaVez() {
+    iniciar(Long.MAX_VALUE);
+    PedidoId id = almacen.save(PedidoFactory.crearNuevoPedido()).getId();
+    writeBehind.modificar(id, pedido -> pedido.agregarProducto(TECLADO, 1));
+    int saves = almacen.saves;
+
+    // El use case lee del buzón (versión del almacén, sin cambiar) y guarda directamente
+    Pedido leido = writeBehind.findById(id).orElseThrow();
+    leido.agregarProducto(RATON, 2);
+    Pedido guardado = writeBehind.save(leido);
+
+    assertThat(almacen.saves - saves).isEqualTo(1);
+    assertThat(guardado.getVersion()).isEqualTo(1L);
+    assertThat(leido.getEventosPendientes()).isEmpty();
+    Pedido enAlmacen = almacen.findById(id).orElseThrow();
+    assertThat(enAlmacen.getItems()).hasSize(2);
+    assertThat(enAlmacen.calcularTotal()).isEqualByComparingTo("88.90");
+    assertThat(diario.leer()).isEmpty();
+  }
+
+  @Test
+  void diarioSinPedidosVolcadosAunqueQuedenOtrosPendientes() {
+    iniciar(1);
+    PedidoId volcado = almacen.save(PedidoFactory.crearNuevoPedido()).getId();
+    PedidoId pendiente = almacen.save(PedidoFactory.crearNuevoPedido()).getId();
+    writeBehind.modificar(volcado, pedido -> pedido.agregarProducto(TECLADO, 1));
+    writeBehind.modificar(pendiente, pedido -> pedido.agregarProducto(RATON, 1));
+    writeBehind.modificar(volcado, pedido -> pedido.agregarProducto(RATON, 1));
+
+    // Completar vuelca en el momento; el otro pedido sigue en su buzón
+    writeBehind.modificar(volcado, Pedido::completarPedido);
+
+    assertThat(diario.leer())
+        .extracting(entrada -> entrada.evento().pedidoId())
+        .containsOnly(pendiente);
+    assertThat(almacen.findById(volcado).orElseThrow().getItems()).hasSize(2);
+  }
+
+  @Test
+  void resumenDesdeElAgregadoMientrasElBuzonNoSeVuelca() {
+    iniciar(Long.MAX_VALUE);
+    PedidoId id = almacen.save(PedidoFactory.crearNuevoPedido()).getId();
+    // Proyección como la deja el último save en el almacén: el carrito vacío
+    ResumenPedido alGuardar =
+        new ResumenPedido(id, EstadoPedido.PENDIENTE, BigDecimal.ZERO, 0, "[]");
+    PedidoUseCasesImpl useCases =
+        new PedidoUseCasesImpl(
+            writeBehind,
+            null,
+            null,
+            pedidoId -> Optional.of(alGuardar),
+            null,
+            new SimpleMeterRegistry());
+    assertThat(useCases.consultarResumen(id)).contains(alGuardar);
+
+    // Aceptado pero solo en el buzón: sin resumen, el controlador sirve el agregado
+    writeBehind.modificar(id, pedido -> pedido.agregarProducto(TECLADO, 1));
+    assertThat(writeBehind.tieneCambiosSinGuardar(id)).isTrue();
+    assertThat(useCases.consultarResumen(id)).isEmpty();
+    assertThat(useCases.consultarPedidoPorId(id).getItems()).hasSize(1);
+
+    writeBehind.modificar(id, Pedido::completarPedido);
+    assertThat(writeBehind.tieneCambiosSinGuardar(id)).isFalse();
+    assertThat(useCases.consultarResumen(id)).contains(alGuardar);
+  }
+
+  private void iniciar(long compactarDesde) {
+    ObjectMapper objectMapper = new ObjectMapper();
+    diario =
+        new DiarioEventosPendientes(
+            directorio.resolve("diario.ndjson"),
+            false,
+            compactarDesde,
+            new EventoPedidoJsonCodec(objectMapper),
+            objectMapper);
+    // Ventana larga: solo vuelcan save, completar y close
+    writeBehind =
+        new WriteBehindPedidoRepositoryAdapter(
+            almacen, diario, Duration.ofHours(1), 100, 1, new SimpleMeterRegistry());
+  }
+
+  /** Almacén con la concurrencia optimista del adaptador JPA: versión 0 al crear, +1 por save */
+  private static final class AlmacenEnMemoria implements PedidoRepositoryPort {
+
+    private final PedidoBinarioCodec codec = new PedidoBinarioCodec();
+    private final Map<PedidoId, byte[]> pedidos = new HashMap<>();
+    int saves;
+
+    @Override
+    public Optional<Pedido> findById(PedidoId pedidoId) {
+      return Optional.ofNullable(pedidos.get(pedidoId))
+          .map(datos -> codec.decodificar(ByteBuffer.wrap(datos)));
+    }
+
+    @Override
+    public Pedido save(Pedido pedido) {
+      Long actual = findById(pedido.getId()).map(Pedido::getVersion).orElse(null);
+      if (!Objects.equals(actual, pedido.getVersion())) {
+        throw new ConflictoDeConcurrenciaException("Versión " + pedido.getVersion());
+      }
+      long version = actual == null ? 0 : actual + 1;
+      pedidos.put(pedido.getId(), codec.codificar(pedido, version));
+      pedido.limpiarEventos();
+      saves++;
+      return findById(pedido.getId()).orElseThrow();
+    }
+
+    @Override
+    public void deleteById(PedidoId pedidoId) {
+      pedidos.remove(pedidoId);
+    }
+  }
+}